@@ -0,0 +1,13 @@
+package my.demo.springboot.microservice.account;
+
+import org.springframework.cloud.netflix.hystrix.dashboard.EnableHystrixDashboard;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The Hystrix dashboard at {@code /hystrix}, only built into the service with the Maven profile
+ * {@code hystrix-dashboard} so that it stays off the classpath of a production build.
+ */
+@Configuration
+@EnableHystrixDashboard
+public class HystrixDashboardConfiguration {
+}
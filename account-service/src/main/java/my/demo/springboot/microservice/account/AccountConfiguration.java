@@ -2,6 +2,7 @@ package my.demo.springboot.microservice.account;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -25,7 +26,7 @@ public class AccountConfiguration {
         accountRepository = accountStream.map(account -> {
             String[] info = account.split(",");
             return new Account(UUID.fromString(info[0]), info[1], info[2], info[3]);
-        }).collect(Collectors.toMap(Account::getAccountId, usr -> usr));
+        }).collect(Collectors.toMap(Account::getAccountId, usr -> usr, (first, second) -> first, ConcurrentHashMap::new));
     }
 
     public Map<UUID, Account> accountRepository() {
@@ -3,15 +3,18 @@ package my.demo.springboot.microservice.account;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
-import org.springframework.cloud.netflix.hystrix.dashboard.EnableHystrixDashboard;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import my.demo.springboot.microservice.support.ExecutorConfiguration;
+import my.demo.springboot.microservice.support.StartupConfiguration;
 
 import static org.springframework.boot.SpringApplication.run;
 
 @SpringBootApplication
 @EnableEurekaClient
 @EnableCircuitBreaker
-@EnableHystrixDashboard
+@Import({ ExecutorConfiguration.class, StartupConfiguration.class })
 public class AccountServiceApplication {
 
 	@Bean
@@ -1,6 +1,8 @@
 package my.demo.springboot.microservice.account.api;
 
+import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -9,43 +11,147 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resources;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import my.demo.springboot.microservice.account.domain.Account;
+import my.demo.springboot.microservice.account.domain.AccountChangeLog;
+import my.demo.springboot.microservice.account.domain.AccountChanges;
 import my.demo.springboot.microservice.account.domain.AccountResource;
 import my.demo.springboot.microservice.account.domain.AccountService;
 
 @RestController
 public class AccountController {
 
+    public static final String ACCOUNTS_PATH = "/accounts";
+
+    public static final String CHANGE_LOG_HEADER = "X-Account-Change-Log";
+    public static final String CHANGE_SEQUENCE_HEADER = "X-Account-Change-Sequence";
+
+    static final long MAX_WAIT_MILLIS = 30_000;
+    static final int MAX_CHANGES = 1000;
+
+    // clients may keep what they read, but have to revalidate it with the ETag before reusing it
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
     AccountService accountService;
 
-    @RequestMapping(value = "/accounts/{id}", produces = "application/hal+json")
-    public ResponseEntity<AccountResource> findById(@PathVariable final UUID id){
-        logger.info(String.format("findById(%s)", id));
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    @RequestMapping(value = ACCOUNTS_PATH + "/{id}", produces = "application/hal+json")
+    public ResponseEntity<AccountResource> findById(@PathVariable final UUID id, final ServletWebRequest request){
+        logger.debug("findById({})", id);
         final Account a = accountService.findById(id);
 
-        final AccountResource ar = new AccountResource(a);
+        if (notModified(request, accountService.accountETag(a))) {
+            return null;
+        }
+
+        final AccountResource ar = new AccountResource(a, accountsHref());
         return ResponseEntity.ok(ar);
     }
 
-    @RequestMapping(value="/accounts", produces = "application/hal+json")
-    public ResponseEntity<Resources<AccountResource>> findAll(){
-        logger.info(String.format("findAll"));
-        final List< AccountResource > accounts = accountService.findAll().stream().map(AccountResource::new).collect(
+    @RequestMapping(value=ACCOUNTS_PATH, produces = "application/hal+json")
+    public ResponseEntity<Resources<AccountResource>> findAll(final ServletWebRequest request){
+        logger.debug("findAll()");
+
+        // read before the accounts, so replaying the changes after it never misses one
+        request.getResponse().setHeader(CHANGE_LOG_HEADER, accountChangeLog.logId().toString());
+        request.getResponse().setHeader(CHANGE_SEQUENCE_HEADER, String.valueOf(accountChangeLog.sequence()));
+
+        if (notModified(request, accountService.accountsETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(accountResources(accountService.findAll()));
+    }
+
+    @PostMapping(value = ACCOUNTS_PATH, consumes = "application/json", produces = "application/hal+json")
+    public ResponseEntity<AccountResource> create(@RequestBody final Account account){
+        logger.debug("create({})", account);
+        final Account created = accountService.create(account);
+
+        final String accountsHref = accountsHref();
+        return ResponseEntity.created(URI.create(accountsHref + "/" + created.getAccountId()))
+                .body(new AccountResource(created, accountsHref));
+    }
+
+    @DeleteMapping(value = ACCOUNTS_PATH + "/{id}")
+    public ResponseEntity<Void> delete(@PathVariable final UUID id){
+        logger.debug("delete({})", id);
+        accountService.delete(id);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Returns the account creations and deletions following {@code since}. If there are none yet, the request waits
+     * up to {@code waitMillis} for the next one.
+     */
+    @GetMapping(value = ACCOUNTS_PATH + "/changes", produces = "application/json")
+    public DeferredResult<AccountChanges> findChanges(@RequestParam("since") final long since,
+            @RequestParam(value = "waitMillis", defaultValue = "0") final long waitMillis){
+        logger.debug("findChanges({}, {})", since, waitMillis);
+
+        final long timeout = Math.min(Math.max(waitMillis, 0), MAX_WAIT_MILLIS);
+        if (timeout == 0) {
+            final DeferredResult<AccountChanges> result = new DeferredResult<>();
+            result.setResult(accountChangeLog.changesSince(since, MAX_CHANGES));
+            return result;
+        }
+
+        final DeferredResult<AccountChanges> result = new DeferredResult<>(timeout);
+        final Runnable complete = () -> result.setResult(accountChangeLog.changesSince(since, MAX_CHANGES));
+        result.onTimeout(complete);
+        result.onCompletion(() -> accountChangeLog.removeWaiter(complete));
+        accountChangeLog.onChangesSince(since, complete);
+        return result;
+    }
+
+    @PostMapping(value = ACCOUNTS_PATH + ":batchGet", consumes = "application/json", produces = "application/hal+json")
+    public ResponseEntity<Resources<AccountResource>> findAllById(@RequestBody final Set<UUID> ids){
+        logger.debug("findAllById({} ids)", ids.size());
+
+        return ResponseEntity.ok(accountResources(accountService.findAllById(ids)));
+    }
+
+    /**
+     * Sets the ETag and answers 304 to clients that already hold the representation it stands for; the body is then
+     * not rendered.
+     */
+    private static boolean notModified(final ServletWebRequest request, final String etag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        return request.checkNotModified(etag);
+    }
+
+    private Resources<AccountResource> accountResources(final List<Account> accounts) {
+        final String accountsHref = accountsHref();
+        final List< AccountResource > resources = accounts.stream().map(a -> new AccountResource(a, accountsHref)).collect(
                 Collectors.toList());
-        final Resources <AccountResource> accountResources = new Resources(accounts);
+        final Resources <AccountResource> accountResources = new Resources(resources);
 
         final String uriString = ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString();
         accountResources.add(new Link(uriString, "self"));
 
-        return ResponseEntity.ok(accountResources);
+        return accountResources;
+    }
+
+    private String accountsHref() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path(ACCOUNTS_PATH).build().toUriString();
     }
 }
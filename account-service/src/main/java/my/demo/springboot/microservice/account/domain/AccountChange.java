@@ -0,0 +1,21 @@
+package my.demo.springboot.microservice.account.domain;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountChange {
+
+    public enum Type {
+        CREATED, DELETED
+    }
+
+    private long sequence;
+    private Type type;
+    private UUID accountId;
+}
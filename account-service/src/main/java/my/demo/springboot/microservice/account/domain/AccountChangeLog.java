@@ -0,0 +1,84 @@
+package my.demo.springboot.microservice.account.domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the most recent account creations and deletions in a ring buffer, numbered by a sequence that starts at zero
+ * with every instance. Each instance identifies its log by a random id, so clients notice when they are talking to
+ * another instance or a restarted one.
+ */
+@Component
+public class AccountChangeLog {
+
+    private final UUID logId = UUID.randomUUID();
+
+    private final AccountChange[] changes;
+
+    private final List<Runnable> waiters = new ArrayList<>();
+
+    private long sequence;
+
+    public AccountChangeLog(@Value("${account.change-log.capacity:10000}") final int capacity) {
+        this.changes = new AccountChange[capacity];
+    }
+
+    public UUID logId() {
+        return logId;
+    }
+
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    public void append(final AccountChange.Type type, final UUID accountId) {
+        final List<Runnable> waiting;
+        synchronized (this) {
+            sequence++;
+            changes[(int) (sequence % changes.length)] = new AccountChange(sequence, type, accountId);
+
+            waiting = new ArrayList<>(waiters);
+            waiters.clear();
+        }
+        waiting.forEach(Runnable::run);
+    }
+
+    /**
+     * Returns up to {@code limit} changes following the given sequence number.
+     */
+    public synchronized AccountChanges changesSince(final long since, final int limit) {
+        if (since > sequence || since < sequence - changes.length) {
+            return new AccountChanges(logId, sequence, true, Collections.emptyList());
+        }
+
+        final long last = Math.min(sequence, since + limit);
+        final List<AccountChange> result = new ArrayList<>((int) (last - since));
+        for (long s = since + 1; s <= last; s++) {
+            result.add(changes[(int) (s % changes.length)]);
+        }
+        return new AccountChanges(logId, last, false, result);
+    }
+
+    /**
+     * Runs the callback once there are changes following the given sequence number, right away if there are some
+     * already.
+     */
+    public void onChangesSince(final long since, final Runnable callback) {
+        synchronized (this) {
+            if (sequence <= since) {
+                waiters.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    public synchronized void removeWaiter(final Runnable callback) {
+        waiters.remove(callback);
+    }
+}
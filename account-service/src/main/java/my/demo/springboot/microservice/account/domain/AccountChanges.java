@@ -0,0 +1,23 @@
+package my.demo.springboot.microservice.account.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of the {@link AccountChangeLog}. {@code sequence} is the sequence number to ask for changes after next time.
+ * If {@code resetRequired} is set, the changes asked for are no longer retained by the log identified by {@code logId},
+ * and the client has to load all accounts again.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountChanges {
+    private UUID logId;
+    private long sequence;
+    private boolean resetRequired;
+    private List<AccountChange> changes;
+}
@@ -1,8 +1,13 @@
 package my.demo.springboot.microservice.account.domain;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -15,6 +20,23 @@ public class AccountService {
     @Autowired
     private AccountConfiguration accountConfiguration;
 
+    @Autowired
+    private AccountChangeLog accountChangeLog;
+
+    // an order independent hash of all accounts, updated along with them
+    private long accountsHash;
+
+    private volatile String accountsETag;
+
+    @PostConstruct
+    synchronized void computeAccountsETag() {
+        accountsHash = 0;
+        for (final Account account : accountConfiguration.accountRepository().values()) {
+            accountsHash ^= hash(account);
+        }
+        updateAccountsETag();
+    }
+
     public Account findById(final UUID id) {
         final Account account = accountConfiguration.accountRepository().get(id);
 
@@ -24,7 +46,61 @@ public class AccountService {
         return account;
     }
 
+    public List<Account> findAllById(final Collection<UUID> ids) {
+        return ids.stream().distinct().map(accountConfiguration.accountRepository()::get).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     public List<Account> findAll() {
         return new ArrayList<>(accountConfiguration.accountRepository().values());
     }
+
+    public synchronized Account create(final Account account) {
+        final Account created = new Account(UUID.randomUUID(), account.getFirstName(), account.getLastName(), account.getEmail());
+
+        accountConfiguration.accountRepository().put(created.getAccountId(), created);
+        accountsHash ^= hash(created);
+        updateAccountsETag();
+        accountChangeLog.append(AccountChange.Type.CREATED, created.getAccountId());
+        return created;
+    }
+
+    public synchronized void delete(final UUID id) {
+        final Account deleted = accountConfiguration.accountRepository().remove(id);
+
+        if(deleted==null) {
+            throw new IllegalArgumentException(String.format("Account with id %s not found", id));
+        }
+        accountsHash ^= hash(deleted);
+        updateAccountsETag();
+        accountChangeLog.append(AccountChange.Type.DELETED, id);
+    }
+
+    /**
+     * Identifies the current set of accounts. It only depends on the accounts themselves, not on their order, so every
+     * instance holding the same accounts reports the same tag.
+     */
+    public String accountsETag() {
+        return accountsETag;
+    }
+
+    /**
+     * Identifies the current state of an account. Accounts don't change once created and are the same on every
+     * instance, so the tag is derived from their content rather than a per-instance counter.
+     */
+    public String accountETag(final Account account) {
+        return String.format("\"%016x\"", hash(account));
+    }
+
+    private void updateAccountsETag() {
+        accountsETag = String.format("\"%016x-%d\"", accountsHash, accountConfiguration.accountRepository().size());
+    }
+
+    private static long hash(final Account account) {
+        long h = account.getAccountId().getMostSignificantBits() * 0x9e3779b97f4a7c15L
+                ^ account.getAccountId().getLeastSignificantBits() ^ account.hashCode();
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
 }
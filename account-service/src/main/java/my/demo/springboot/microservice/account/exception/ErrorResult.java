@@ -0,0 +1,14 @@
+package my.demo.springboot.microservice.account.exception;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ErrorResult {
+    private Date timestamp;
+    private String message;
+    private String details;
+}
@@ -2,6 +2,9 @@ package my.demo.springboot.microservice.account;
 
 import my.demo.springboot.microservice.account.api.AccountController;
 import my.demo.springboot.microservice.account.domain.Account;
+import my.demo.springboot.microservice.account.domain.AccountChange;
+import my.demo.springboot.microservice.account.domain.AccountChangeLog;
+import my.demo.springboot.microservice.account.domain.AccountChanges;
 import my.demo.springboot.microservice.account.domain.AccountService;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,17 +12,26 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.Collections;
 import java.util.UUID;
 
 @RunWith(SpringRunner.class)
@@ -32,6 +44,9 @@ public class AccountServiceApplicationTests {
 	@MockBean
 	private AccountService accountService;
 
+	@MockBean
+	private AccountChangeLog accountChangeLog;
+
 	private Account account;
 
     private final UUID accountOneId = UUID.randomUUID();
@@ -40,6 +55,8 @@ public class AccountServiceApplicationTests {
 	public void setup() {
 
 	    account = new Account(accountOneId, "John", "Doe", "John.Doe@foo.bar");
+
+		given(accountChangeLog.logId()).willReturn(UUID.randomUUID());
 	}
 
 	@Test
@@ -66,4 +83,75 @@ public class AccountServiceApplicationTests {
 				.andExpect((jsonPath("_links.self.href", containsString("accounts/" + accountOneId))));
 	}
 
+	@Test
+	public void testGetAccountNotModified() throws Exception {
+		given(accountService.findById(accountOneId)).willReturn(account);
+		given(accountService.accountETag(account)).willReturn("\"7\"");
+
+		mockMvc.perform(get("/accounts/"+accountOneId))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"7\""))
+				.andExpect(header().string("Cache-Control", "no-cache"));
+
+		mockMvc.perform(get("/accounts/"+accountOneId).header("If-None-Match", "\"7\""))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+	}
+
+	@Test
+	public void testGetUnknownAccountNotFound() throws Exception {
+		final UUID unknownAccountId = UUID.randomUUID();
+
+		given(accountService.findById(unknownAccountId))
+				.willThrow(new IllegalArgumentException(String.format("Account with id %s not found", unknownAccountId)));
+
+		final ResultActions result = mockMvc.perform(get("/accounts/"+unknownAccountId));
+
+		result.andExpect(status().isNotFound())
+				.andExpect(jsonPath("message", containsString("Account with id " + unknownAccountId + " not found")));
+	}
+
+	@Test
+	public void testBatchGetReturnsExistingAccounts() throws Exception {
+		final UUID unknownAccountId = UUID.randomUUID();
+
+		given(accountService.findAllById(anyCollection())).willReturn(Collections.singletonList(account));
+
+		final ResultActions result = mockMvc.perform(post("/accounts:batchGet").contentType(MediaType.APPLICATION_JSON)
+				.content("[\"" + accountOneId + "\",\"" + unknownAccountId + "\"]"));
+
+		result.andExpect(status().isOk())
+				.andExpect(jsonPath("_embedded.accountResourceList", hasSize(1)))
+				.andExpect(jsonPath("_embedded.accountResourceList[0].account.accountId", is(accountOneId.toString())));
+	}
+
+	@Test
+	public void testGetAllAccountsNotModified() throws Exception {
+		given(accountService.findAll()).willReturn(Collections.singletonList(account));
+		given(accountService.accountsETag()).willReturn("\"42\"");
+
+		mockMvc.perform(get("/accounts"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"42\""));
+
+		mockMvc.perform(get("/accounts").header("If-None-Match", "\"42\""))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void testGetAccountChangesSince() throws Exception {
+		final UUID logId = UUID.randomUUID();
+		given(accountChangeLog.changesSince(41, 1000)).willReturn(new AccountChanges(logId, 42, false,
+				Collections.singletonList(new AccountChange(42, AccountChange.Type.CREATED, accountOneId))));
+
+		final MvcResult pending = mockMvc.perform(get("/accounts/changes?since=41")).andReturn();
+
+		mockMvc.perform(asyncDispatch(pending))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("logId", is(logId.toString())))
+				.andExpect(jsonPath("sequence", is(42)))
+				.andExpect(jsonPath("changes[0].type", is("CREATED")))
+				.andExpect(jsonPath("changes[0].accountId", is(accountOneId.toString())));
+	}
+
 }
\ No newline at end of file
@@ -3,9 +3,13 @@ package my.demo.springboot.microservice.eureka;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.netflix.eureka.server.EnableEurekaServer;
+import org.springframework.context.annotation.Import;
+
+import my.demo.springboot.microservice.support.StartupConfiguration;
 
 @SpringBootApplication
 @EnableEurekaServer
+@Import(StartupConfiguration.class)
 public class EurekaApplication {
     public static void main(final String[] args) {
         SpringApplication.run(EurekaApplication.class, args);
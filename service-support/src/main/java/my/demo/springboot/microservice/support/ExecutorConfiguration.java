@@ -0,0 +1,46 @@
+package my.demo.springboot.microservice.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the executor requests are handled on. With {@code executor.mode=virtual} (see the {@code virtual-threads}
+ * profile) Tomcat runs every request on its own virtual thread instead of its bounded worker pool, so requests
+ * blocked on I/O no longer hold a platform thread. Virtual threads need a Java 21 runtime; the services are still
+ * built for Java 8, hence the reflective lookup, and on an older runtime the mode stops the start right away.
+ * Imported by the todo-service and the account-service.
+ */
+@Configuration
+public class ExecutorConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "executor.mode", havingValue = "virtual")
+    WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadExecutorCustomizer() {
+        final ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            final ProtocolHandler protocolHandler = connector.getProtocolHandler();
+            if (protocolHandler instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) protocolHandler).setExecutor(executor);
+            }
+        });
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final NoSuchMethodException e) {
+            throw new IllegalStateException(String.format("Virtual threads need Java 21 or later, running on %s",
+                    System.getProperty("java.version")), e);
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
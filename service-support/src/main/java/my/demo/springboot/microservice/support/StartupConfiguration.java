@@ -0,0 +1,147 @@
+package my.demo.springboot.microservice.support;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+
+/**
+ * Startup of the service. The {@code fast-start} profile creates the beans of the application's own packages on first
+ * use instead of all at startup; Spring, Spring Cloud and actuator beans are left as they are. The beans named in
+ * {@code startup.eager-beans}, which have to be ready before the first request, are created at startup all the same;
+ * each service lists its own in {@code application-fast-start.yml}. The startup timeline at {@code /actuator/startup}
+ * shows where the time went. Imported by all three services.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    @Bean
+    static StartupTimeline startupTimeline() {
+        return new StartupTimeline();
+    }
+
+    @Bean
+    @Profile("fast-start")
+    static BeanFactoryPostProcessor lazyInitialization(final Environment environment) {
+        final Set<String> eagerBeans = new HashSet<>(
+                Arrays.asList(environment.getProperty("startup.eager-beans", String[].class, new String[0])));
+        return beanFactory -> {
+            final List<String> packages = AutoConfigurationPackages.has(beanFactory)
+                    ? AutoConfigurationPackages.get(beanFactory) : Collections.emptyList();
+            for (final String beanName : beanFactory.getBeanDefinitionNames()) {
+                final BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+                if (!eagerBeans.contains(beanName) && inPackages(declaringClassName(beanDefinition), packages)) {
+                    beanDefinition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // the class of a component, or the configuration class declaring a @Bean method
+    private static String declaringClassName(final BeanDefinition beanDefinition) {
+        if (beanDefinition instanceof AnnotatedBeanDefinition) {
+            final MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) beanDefinition).getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return beanDefinition.getBeanClassName();
+    }
+
+    private static boolean inPackages(final String className, final List<String> packages) {
+        return className != null && packages.stream().anyMatch(name -> className.startsWith(name + "."));
+    }
+
+    /**
+     * Records when each bean was created until the application is ready, in milliseconds since the JVM started. With
+     * {@code startup.exit-when-ready=true} the application exits once it is ready, which the {@code fast-start} Maven
+     * profile uses to record the classes loaded at startup for class data sharing.
+     */
+    @Endpoint(id = "startup")
+    public static class StartupTimeline
+            implements InstantiationAwareBeanPostProcessor, ApplicationListener<ApplicationReadyEvent> {
+
+        private final long baseNanos = System.nanoTime();
+        private final long baseMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        private final Map<String, Long> startNanos = new ConcurrentHashMap<>();
+        private final List<Map<String, Object>> steps = new ArrayList<>();
+
+        private volatile long readyMillis = -1;
+
+        @ReadOperation
+        public Map<String, Object> timeline() {
+            final Map<String, Object> timeline = new LinkedHashMap<>();
+            timeline.put("readyMillis", readyMillis);
+            synchronized (steps) {
+                timeline.put("beans", steps.stream()
+                        .sorted(Comparator.comparingLong(step -> (Long) step.get("startMillis")))
+                        .collect(Collectors.toList()));
+            }
+            return timeline;
+        }
+
+        @Override
+        public Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) {
+            if (readyMillis < 0) {
+                startNanos.put(beanName, System.nanoTime());
+            }
+            return null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            final Long start = startNanos.remove(beanName);
+            if (start != null) {
+                final Map<String, Object> step = new LinkedHashMap<>();
+                step.put("bean", beanName);
+                step.put("type", bean.getClass().getName());
+                step.put("startMillis", millis(start));
+                step.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                synchronized (steps) {
+                    steps.add(step);
+                }
+            }
+            return bean;
+        }
+
+        @Override
+        public void onApplicationEvent(final ApplicationReadyEvent event) {
+            readyMillis = millis(System.nanoTime());
+            startNanos.clear();
+            if (event.getApplicationContext().getEnvironment().getProperty("startup.exit-when-ready", Boolean.class,
+                    false)) {
+                System.exit(SpringApplication.exit(event.getApplicationContext()));
+            }
+        }
+
+        private long millis(final long nanos) {
+            return baseMillis + TimeUnit.NANOSECONDS.toMillis(nanos - baseNanos);
+        }
+    }
+}
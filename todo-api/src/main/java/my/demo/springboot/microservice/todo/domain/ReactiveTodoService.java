@@ -0,0 +1,21 @@
+package my.demo.springboot.microservice.todo.domain;
+
+import java.util.List;
+import java.util.UUID;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTodoService {
+    public Mono<Todo> findById(UUID todoId);
+
+    public Flux<Todo> findAll();
+
+    public Flux<Todo> findAll(UUID after, int limit);
+
+    public Flux<Todo> findAllByAccount(UUID accountId);
+
+    public Mono<Todo> addTodo(final Todo todo);
+
+    public Mono<List<TodoResult>> addTodos(final List<Todo> todos);
+}
@@ -1,8 +1,8 @@
 package my.demo.springboot.microservice.todo.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import lombok.*;
-import org.springframework.hateoas.ResourceSupport;
-import org.springframework.hateoas.core.Relation;
 
 import java.util.UUID;
 
@@ -12,8 +12,8 @@ import java.util.UUID;
 @EqualsAndHashCode(exclude = "todoId")
 @ToString(exclude = "todoId")
 @RequiredArgsConstructor
-@Relation(collectionRelation="todos")
-public class Todo extends ResourceSupport {
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Todo {
     private UUID todoId;
 
     @NonNull
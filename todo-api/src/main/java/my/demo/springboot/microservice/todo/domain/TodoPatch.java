@@ -0,0 +1,23 @@
+package my.demo.springboot.microservice.todo.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update of a todo: fields left {@code null} keep their current value.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoPatch {
+    private String email;
+
+    private String description;
+
+    private Boolean completed;
+
+    public static TodoPatch completed(final boolean completed) {
+        return new TodoPatch(null, null, completed);
+    }
+}
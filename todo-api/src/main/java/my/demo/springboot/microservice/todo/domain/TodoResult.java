@@ -0,0 +1,27 @@
+package my.demo.springboot.microservice.todo.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of adding one todo of a batch: the stored todo, or the submitted one along with the reason it was rejected.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TodoResult {
+    private Todo todo;
+
+    private boolean created;
+
+    private String error;
+
+    public static TodoResult success(final Todo todo) {
+        return new TodoResult(todo, true, null);
+    }
+
+    public static TodoResult failure(final Todo todo, final String error) {
+        return new TodoResult(todo, false, error);
+    }
+}
@@ -8,7 +8,26 @@ public interface TodoService {
 
     public List<Todo> findAll();
 
+    public List<Todo> findAll(UUID after, int limit);
+
     public List<Todo> findAllByAccount(UUID accountId);
 
     public Todo addTodo(final Todo todo);
+
+    public List<TodoResult> addTodos(final List<Todo> todos);
+
+    /**
+     * Replaces email, description and completion of a todo. With an {@code expectedETag} the update only succeeds if
+     * the todo is still in the state the tag stands for, without one concurrent updates are retried.
+     */
+    public Todo updateTodo(final UUID todoId, final Todo todo, final String expectedETag);
+
+    /**
+     * Changes the fields of a todo that are set in the patch, see {@link #updateTodo(UUID, Todo, String)}.
+     */
+    public Todo patchTodo(final UUID todoId, final TodoPatch patch, final String expectedETag);
+
+    public Todo completeTodo(final UUID todoId, final String expectedETag);
+
+    public void deleteTodo(final UUID todoId, final String expectedETag);
 }
\ No newline at end of file
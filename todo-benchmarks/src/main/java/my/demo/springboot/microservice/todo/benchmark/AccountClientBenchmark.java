@@ -0,0 +1,118 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import my.demo.springboot.microservice.todo.client.Account;
+import my.demo.springboot.microservice.todo.client.AccountClient;
+import my.demo.springboot.microservice.todo.client.AccountProxy;
+import my.demo.springboot.microservice.todo.client.AccountReplica;
+import my.demo.springboot.microservice.todo.client.AccountRequestCollapser;
+import my.demo.springboot.microservice.todo.client.AccountResources;
+import my.demo.springboot.microservice.todo.client.AccountValidityCache;
+
+/**
+ * Measures the overhead {@link AccountClient} adds around an account-service proxy that answers immediately. A
+ * cache TTL of zero makes every lookup reach the proxy, either directly or through the request collapser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class AccountClientBenchmark {
+
+    @Param({"100", "100000"})
+    private int accounts;
+
+    @Param({"0", "60"})
+    private long cacheTtlSeconds;
+
+    @Param({"false", "true"})
+    private boolean batchEnabled;
+
+    private UUID[] accountIds;
+
+    private AccountRequestCollapser accountRequestCollapser;
+
+    private AccountClient accountClient;
+
+    @Setup
+    public void setup() {
+        accountIds = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountIds[i] = UUID.randomUUID();
+        }
+
+        final AccountProxy accountProxy = new StubAccountProxy();
+        accountRequestCollapser = new AccountRequestCollapser(accountProxy, 5, 100, 4);
+
+        accountClient = new AccountClient();
+        ReflectionTestUtils.setField(accountClient, "accountProxy", accountProxy);
+        ReflectionTestUtils.setField(accountClient, "accountReplica", new AccountReplica());
+        ReflectionTestUtils.setField(accountClient, "accountValidityCache",
+                new AccountValidityCache(cacheTtlSeconds, cacheTtlSeconds, 10000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(accountClient, "accountRequestCollapser", accountRequestCollapser);
+        ReflectionTestUtils.setField(accountClient, "batchEnabled", batchEnabled);
+        ReflectionTestUtils.setField(accountClient, "batchTimeoutMillis", 2000L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        accountRequestCollapser.shutdown();
+    }
+
+    @Benchmark
+    public boolean isAccountValid() {
+        return accountClient.isAccountValid(accountIds[ThreadLocalRandom.current().nextInt(accounts)]);
+    }
+
+    private static final class StubAccountProxy implements AccountProxy {
+
+        @Override
+        public ResponseEntity<Account> findById(final UUID id) {
+            return ResponseEntity.ok(new Account(id, "John", "Doe", "John.Doe@foo.bar"));
+        }
+
+        @Override
+        public ResponseEntity<AccountResources> findAllById(final Set<UUID> ids) {
+            final List<AccountResources.AccountResource> resources = new ArrayList<>(ids.size());
+            for (final UUID id : ids) {
+                final AccountResources.AccountResource resource = new AccountResources.AccountResource();
+                resource.setAccount(new Account(id, "John", "Doe", "John.Doe@foo.bar"));
+                resources.add(resource);
+            }
+
+            final AccountResources.Embedded embedded = new AccountResources.Embedded();
+            embedded.setAccountResourceList(resources);
+
+            final AccountResources accountResources = new AccountResources();
+            accountResources.setEmbedded(embedded);
+            return ResponseEntity.ok(accountResources);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import my.demo.springboot.microservice.account.AccountConfiguration;
+import my.demo.springboot.microservice.account.domain.Account;
+import my.demo.springboot.microservice.account.domain.AccountService;
+
+/**
+ * Measures the lookups of {@link AccountService} against a repository grown to the given number of accounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"2", "10000", "1000000"})
+    private int accounts;
+
+    private UUID[] accountIds;
+
+    private AccountService accountService;
+
+    @Setup
+    public void setup() {
+        final AccountConfiguration accountConfiguration = new AccountConfiguration();
+        final Map<UUID, Account> repository = accountConfiguration.accountRepository();
+        for (int i = repository.size(); i < accounts; i++) {
+            final UUID accountId = UUID.randomUUID();
+            repository.put(accountId, new Account(accountId, "John", "Doe " + i, "John.Doe@foo.bar"));
+        }
+        accountIds = repository.keySet().toArray(new UUID[0]);
+
+        accountService = new AccountService();
+        ReflectionTestUtils.setField(accountService, "accountConfiguration", accountConfiguration);
+    }
+
+    @Benchmark
+    public Account findById() {
+        return accountService.findById(accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)]);
+    }
+
+    @Benchmark
+    public List<Account> findAllById() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final List<UUID> ids = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ids.add(accountIds[random.nextInt(accountIds.length)]);
+        }
+        return accountService.findAllById(ids);
+    }
+}
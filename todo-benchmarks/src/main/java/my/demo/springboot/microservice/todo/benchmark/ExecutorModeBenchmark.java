@@ -0,0 +1,132 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import my.demo.springboot.microservice.support.ExecutorConfiguration;
+import my.demo.springboot.microservice.todo.client.Account;
+import my.demo.springboot.microservice.todo.client.AccountClient;
+import my.demo.springboot.microservice.todo.client.AccountProxy;
+import my.demo.springboot.microservice.todo.client.AccountReplica;
+import my.demo.springboot.microservice.todo.client.AccountResources;
+import my.demo.springboot.microservice.todo.client.AccountValidityCache;
+
+/**
+ * Compares the two values of {@code executor.mode} under load: a burst of concurrent requests, each blocked on an
+ * {@link AccountClient} lookup against a slow account-service, is handled either by a pool the size of Tomcat's
+ * default worker pool or by one virtual thread per request. The platform numbers are a best case for the current
+ * model, a thread-isolated Hystrix command would additionally cap the lookups at its pool size of 10.
+ * <p>
+ * The virtual mode needs a Java 21 runtime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExecutorModeBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"1000", "10000"})
+    private int requests;
+
+    @Param({"50"})
+    private long latencyMillis;
+
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    private ExecutorService executor;
+
+    private AccountClient accountClient;
+
+    @Setup
+    public void setup() {
+        executor = "virtual".equals(mode) ? ExecutorConfiguration.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+
+        accountClient = new AccountClient();
+        ReflectionTestUtils.setField(accountClient, "accountProxy", new SlowAccountProxy(latencyMillis));
+        ReflectionTestUtils.setField(accountClient, "accountReplica", new AccountReplica());
+        ReflectionTestUtils.setField(accountClient, "accountValidityCache",
+                new AccountValidityCache(0, 0, 10000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(accountClient, "batchEnabled", false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int handleRequests() throws InterruptedException, ExecutionException {
+        final List<Future<Boolean>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            final UUID accountId = UUID.randomUUID();
+            responses.add(executor.submit(() -> accountClient.isAccountValid(accountId)));
+        }
+
+        int valid = 0;
+        for (final Future<Boolean> response : responses) {
+            if (response.get()) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Blocks like a remote call would; a sleeping virtual thread releases its carrier just like one waiting on a
+     * socket.
+     */
+    private static final class SlowAccountProxy implements AccountProxy {
+
+        private final long latencyMillis;
+
+        SlowAccountProxy(final long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public ResponseEntity<Account> findById(final UUID id) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return ResponseEntity.ok(new Account(id, "John", "Doe", "John.Doe@foo.bar"));
+        }
+
+        @Override
+        public ResponseEntity<AccountResources> findAllById(final Set<UUID> ids) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
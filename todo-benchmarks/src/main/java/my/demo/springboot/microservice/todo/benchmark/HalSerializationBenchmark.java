@@ -0,0 +1,73 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Resources;
+import org.springframework.hateoas.core.AnnotationRelProvider;
+import org.springframework.hateoas.hal.Jackson2HalModule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import my.demo.springboot.microservice.todo.api.TodoLinks;
+import my.demo.springboot.microservice.todo.api.TodoResource;
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Measures rendering a list of todos as {@code application/hal+json}, the way the todo controller responds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HalSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int todos;
+
+    private ObjectMapper objectMapper;
+
+    private List<Todo> storedTodos;
+
+    private TodoLinks links;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(
+                new Jackson2HalModule.HalHandlerInstantiator(new AnnotationRelProvider(), null, null));
+
+        final UUID accountId = UUID.randomUUID();
+        storedTodos = new ArrayList<>(todos);
+        for (int i = 0; i < todos; i++) {
+            storedTodos.add(new Todo(UUID.randomUUID(), accountId, "John.Doe@foo.bar", "Todo " + i, i % 2 == 0));
+        }
+        links = new TodoLinks("http://localhost:8081");
+    }
+
+    @Benchmark
+    public byte[] todoResources() throws JsonProcessingException {
+        final List<TodoResource> resources = new ArrayList<>(storedTodos.size());
+        for (final Todo todo : storedTodos) {
+            resources.add(new TodoResource(todo, links));
+        }
+        return objectMapper.writeValueAsBytes(new Resources<>(resources));
+    }
+}
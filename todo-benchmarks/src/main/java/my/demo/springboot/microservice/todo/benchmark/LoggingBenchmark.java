@@ -0,0 +1,121 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import my.demo.springboot.microservice.todo.api.TodoController;
+
+/**
+ * Measures the logging of a request the way the services used to do it and the way they do it now, on a logger
+ * context of its own that writes to a file.
+ * <p>
+ * {@code eagerFormatDisabled} and {@code parameterizedDisabled} compare {@code String.format} against a parameterized
+ * message for a disabled level and don't touch the appender. {@code parameterizedEnabled} writes every message, either
+ * on the calling thread ({@code sync}) or through the bounded, non-blocking queue of the services' logback-spring.xml
+ * ({@code async}), which drops what it can't keep up with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private final UUID todoId = UUID.randomUUID();
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    private Path file;
+
+    private OutputStream out;
+
+    @Setup
+    public void setup() throws IOException {
+        context = new LoggerContext();
+        file = Files.createTempFile("logging-benchmark", ".log");
+        out = Files.newOutputStream(file);
+
+        final PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} %5p [%X{X-B3-TraceId:-}] %t %logger{20}: %m%n");
+        encoder.start();
+
+        final OutputStreamAppender<ILoggingEvent> fileAppender = new OutputStreamAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setEncoder(encoder);
+        fileAppender.setOutputStream(out);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> root = fileAppender;
+        if ("async".equals(appender)) {
+            final AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(1024);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            root = asyncAppender;
+        }
+
+        logger = context.getLogger(TodoController.class);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(root);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        out.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void eagerFormatDisabled() {
+        logger.debug(String.format("findById(%s)", todoId));
+    }
+
+    @Benchmark
+    public void parameterizedDisabled() {
+        logger.debug("findById({})", todoId);
+    }
+
+    @Benchmark
+    public void parameterizedEnabled() {
+        logger.info("findById({})", todoId);
+    }
+}
@@ -0,0 +1,85 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import my.demo.springboot.microservice.todo.api.TodoController;
+import my.demo.springboot.microservice.todo.api.TodoLinks;
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Compares the links of one list request built with {@code linkTo(methodOn(...))} against {@link TodoLinks}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoLinksBenchmark {
+
+    @Param({"1", "100"})
+    private int todosPerRequest;
+
+    private final List<Todo> todos = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todos");
+        request.setServerName("localhost");
+        request.setServerPort(8081);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        final UUID accountId = UUID.randomUUID();
+        for (int i = 0; i < todosPerRequest; i++) {
+            todos.add(new Todo(UUID.randomUUID(), accountId, "John.Doe@foo.bar", "Todo " + i, false));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public void controllerLinkBuilder(final Blackhole blackhole) {
+        for (final Todo todo : todos) {
+            blackhole.consume(linkTo(methodOn(TodoController.class).findById(todo.getTodoId())).withSelfRel());
+            blackhole.consume(linkTo(methodOn(TodoController.class).findAllByAccount(todo.getAccountId())).withRel("accountTodos"));
+            blackhole.consume(linkTo(methodOn(TodoController.class).findAll(null, null)).withRel("todos"));
+        }
+    }
+
+    @Benchmark
+    public void linkTemplates(final Blackhole blackhole) {
+        final TodoLinks links = TodoLinks.fromCurrentRequest();
+
+        for (final Todo todo : todos) {
+            blackhole.consume(links.selfHref(todo));
+            blackhole.consume(links.accountTodosHref(todo));
+            blackhole.consume(links.todosHref());
+        }
+    }
+}
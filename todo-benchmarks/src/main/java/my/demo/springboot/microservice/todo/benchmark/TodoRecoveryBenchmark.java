@@ -0,0 +1,95 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.store.InMemoryTodoStore;
+import my.demo.springboot.microservice.todo.store.PersistentTodoStore;
+import my.demo.springboot.microservice.todo.store.TodoJournal;
+
+/**
+ * Measures startup recovery of a {@link PersistentTodoStore}, either from the journal alone or from a snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public class TodoRecoveryBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int AWAIT_EVERY = 100_000;
+
+    @Param({"10000000"})
+    private int records;
+
+    @Param({"journal", "snapshot"})
+    private String source;
+
+    private Path directory;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("todo-recovery");
+
+        final UUID[] accountIds = new UUID[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = UUID.randomUUID();
+        }
+
+        try (TodoJournal journal = TodoJournal.open(directory, 0)) {
+            CompletableFuture<Long> written = null;
+            for (int i = 0; i < records; i++) {
+                written = journal.append(TodoJournal.ADD, new Todo(UUID.randomUUID(), accountIds[i % ACCOUNTS],
+                        "John.Doe@foo.bar", "Todo " + i, i % 2 == 0));
+                if (i % AWAIT_EVERY == 0) {
+                    written.join();
+                }
+            }
+            if (written != null) {
+                written.join();
+            }
+        }
+
+        if ("snapshot".equals(source)) {
+            try (PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600)) {
+                store.snapshot();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        try (PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600)) {
+            return store.size();
+        }
+    }
+}
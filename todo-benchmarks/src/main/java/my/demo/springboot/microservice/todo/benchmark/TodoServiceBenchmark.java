@@ -0,0 +1,156 @@
+package my.demo.springboot.microservice.todo.benchmark;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import my.demo.springboot.microservice.todo.TodoConfiguration;
+import my.demo.springboot.microservice.todo.client.AccountClient;
+import my.demo.springboot.microservice.todo.client.AccountValidator;
+import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.domain.TodoResult;
+import my.demo.springboot.microservice.todo.domain.TodoServiceImpl;
+import my.demo.springboot.microservice.todo.store.InMemoryTodoStore;
+import my.demo.springboot.microservice.todo.store.MappedTodoStore;
+import my.demo.springboot.microservice.todo.store.TodoStore;
+
+/**
+ * Measures {@link TodoServiceImpl} on top of each store, with an account client that accepts every account.
+ * {@code addTodo} and {@code addTodos} grow the store while it is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TodoServiceBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final int PAGE_SIZE = 100;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "100000"})
+    private int todos;
+
+    @Param({"heap", "mapped"})
+    private String storeType;
+
+    private final UUID[] accountIds = new UUID[ACCOUNTS];
+
+    private UUID[] todoIds;
+
+    private final AtomicLong added = new AtomicLong();
+
+    private Path directory;
+
+    private TodoStore todoStore;
+
+    private AccountValidator accountValidator;
+
+    private TodoServiceImpl todoService;
+
+    @Setup
+    public void setup() throws IOException {
+        if ("mapped".equals(storeType)) {
+            directory = Files.createTempDirectory("todo-service-benchmark");
+            todoStore = MappedTodoStore.open(directory);
+        } else {
+            todoStore = new InMemoryTodoStore();
+        }
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds[i] = UUID.randomUUID();
+        }
+        todoIds = new UUID[todos];
+        for (int i = 0; i < todos; i++) {
+            todoIds[i] = UUID.randomUUID();
+            todoStore.add(new Todo(todoIds[i], accountIds[i % ACCOUNTS], "John.Doe@foo.bar", "Todo " + i, false));
+        }
+
+        todoService = new TodoServiceImpl();
+        ReflectionTestUtils.setField(todoService, "todoConfiguration", new TodoConfiguration(todoStore));
+        final AccountClient accountClient = new AccountClient() {
+            @Override
+            public boolean isAccountValid(final UUID accountId) {
+                return true;
+            }
+        };
+        accountValidator = new AccountValidator(accountClient, 16);
+        ReflectionTestUtils.setField(todoService, "accountClient", accountClient);
+        ReflectionTestUtils.setField(todoService, "accountValidator", accountValidator);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        accountValidator.shutdown();
+        if (todoStore instanceof Closeable) {
+            ((Closeable) todoStore).close();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public Todo findById() {
+        return todoService.findById(todoIds[ThreadLocalRandom.current().nextInt(todos)]);
+    }
+
+    @Benchmark
+    public List<Todo> findAll() {
+        return todoService.findAll();
+    }
+
+    @Benchmark
+    public List<Todo> findAllPage() {
+        return todoService.findAll(todoIds[ThreadLocalRandom.current().nextInt(todos)], PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Todo> findAllByAccount() {
+        return todoService.findAllByAccount(accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)]);
+    }
+
+    @Benchmark
+    public Todo addTodo() {
+        final long id = added.incrementAndGet();
+        return todoService.addTodo(new Todo(null, accountIds[(int) (id % ACCOUNTS)], "John.Doe@foo.bar",
+                "Added " + id, false));
+    }
+
+    @Benchmark
+    public List<TodoResult> addTodos() {
+        final List<Todo> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            final long id = added.incrementAndGet();
+            batch.add(new Todo(null, accountIds[(int) (id % ACCOUNTS)], "John.Doe@foo.bar", "Added " + id, false));
+        }
+        return todoService.addTodos(batch);
+    }
+}
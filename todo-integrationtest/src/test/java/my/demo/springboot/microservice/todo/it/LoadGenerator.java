@@ -0,0 +1,166 @@
+package my.demo.springboot.microservice.todo.it;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Sends requests to the todo-service at a constant rate, as an open model: request {@code n} is due at
+ * {@code start + n / rate} whether or not the earlier ones have been answered, and its latency is measured from that
+ * due time. A request that has to wait for a slow one therefore reports the time it waited, instead of the waiting
+ * time silently lowering the rate (coordinated omission). The scenarios are interleaved by their weight in the mix.
+ */
+class LoadGenerator {
+
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RestTemplate restTemplate;
+
+    private final String baseUrl;
+
+    private final List<UUID> accountIds;
+
+    private final List<String> todoUrls = new ArrayList<>();
+
+    LoadGenerator(final String baseUrl, final List<UUID> accountIds) {
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(1000);
+        requestFactory.setReadTimeout(30000);
+
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.baseUrl = baseUrl;
+        this.accountIds = accountIds;
+    }
+
+    /**
+     * Collects the todos to look up by id, adding one per account first so there are some.
+     */
+    void prepare() throws IOException {
+        final String prepareId = UUID.randomUUID().toString();
+        for (final UUID accountId : accountIds) {
+            restTemplate.postForEntity(baseUrl + "/todos",
+                    new Todo(accountId, "load@foo.bar", "Prepare " + prepareId + " " + accountId, false), String.class);
+        }
+
+        final JsonNode todos = objectMapper.readTree(restTemplate.getForObject(baseUrl + "/todos?limit=1000", String.class))
+                .path("_embedded").path("todos");
+        todos.forEach(todo -> todoUrls.add(todo.path("_links").path("self").path("href").asText()));
+    }
+
+    /**
+     * Runs the load; the disruption, if any, is run halfway through and starts the phase {@code after}.
+     */
+    LoadReport run(final String name, final LoadSettings settings, final Runnable disruption) throws InterruptedException {
+        final LoadScenario[] schedule = schedule(settings.getMix());
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.getRate();
+        final long total = (long) settings.getRate() * settings.getDurationSeconds();
+
+        final long start = System.nanoTime() + START_DELAY_NANOS;
+        final long end = start + total * intervalNanos;
+        final LoadReport report = new LoadReport(name);
+        // keeps the todos added by different runs of the same generator from being duplicates of each other
+        final String runId = UUID.randomUUID().toString();
+
+        final ScheduledExecutorService disruptor = Executors.newSingleThreadScheduledExecutor();
+        if (disruption == null) {
+            report.addPhase("steady", start, end);
+        } else {
+            final long disruptAt = start + (end - start) / 2;
+            report.addPhase("before", start, disruptAt);
+            report.addPhase("after", disruptAt, end);
+            disruptor.schedule(disruption, disruptAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        final AtomicLong next = new AtomicLong();
+        final ExecutorService workers = Executors.newFixedThreadPool(settings.getConcurrency());
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            workers.execute(() -> {
+                for (long n = next.getAndIncrement(); n < total; n = next.getAndIncrement()) {
+                    final long due = start + n * intervalNanos;
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+
+                    final LoadScenario scenario = schedule[(int) (n % schedule.length)];
+                    final long sent = System.nanoTime();
+                    final boolean succeeded = send(scenario, n, runId);
+                    report.record(scenario, due, sent, System.nanoTime(), succeeded);
+                }
+            });
+        }
+
+        workers.shutdown();
+        final boolean finished = workers.awaitTermination(settings.getDurationSeconds() + 300, TimeUnit.SECONDS);
+        disruptor.shutdown();
+        disruptor.awaitTermination(5, TimeUnit.MINUTES);
+        if (!finished) {
+            workers.shutdownNow();
+            throw new IllegalStateException(String.format("%s did not finish in time", name));
+        }
+        return report;
+    }
+
+    private boolean send(final LoadScenario scenario, final long n, final String runId) {
+        try {
+            final UUID accountId = accountIds.get((int) (n % accountIds.size()));
+            switch (scenario) {
+                case FIND_ALL:
+                    restTemplate.getForEntity(baseUrl + "/todos?limit=20", String.class);
+                    break;
+                case FIND_BY_ID:
+                    restTemplate.getForEntity(todoUrls.get((int) (n % todoUrls.size())), String.class);
+                    break;
+                case FIND_ALL_BY_ACCOUNT:
+                    restTemplate.getForEntity(baseUrl + "/accounts/" + accountId + "/todos", String.class);
+                    break;
+                case ADD_TODO:
+                    restTemplate.postForEntity(baseUrl + "/todos",
+                            new Todo(accountId, "load@foo.bar", "Load " + runId + " " + n, false), String.class);
+                    break;
+                default:
+                    throw new IllegalArgumentException(scenario.toString());
+            }
+            return true;
+        } catch (final RestClientException e) {
+            return false;
+        }
+    }
+
+    // spreads every scenario evenly over a cycle as long as the sum of the weights
+    private static LoadScenario[] schedule(final Map<LoadScenario, Integer> mix) {
+        final int cycle = mix.values().stream().mapToInt(Integer::intValue).sum();
+        final LoadScenario[] schedule = new LoadScenario[cycle];
+        final double[] credits = new double[LoadScenario.values().length];
+        for (int slot = 0; slot < cycle; slot++) {
+            LoadScenario chosen = null;
+            for (final Map.Entry<LoadScenario, Integer> entry : mix.entrySet()) {
+                credits[entry.getKey().ordinal()] += entry.getValue();
+                if (chosen == null || credits[entry.getKey().ordinal()] > credits[chosen.ordinal()]) {
+                    chosen = entry.getKey();
+                }
+            }
+            credits[chosen.ordinal()] -= cycle;
+            schedule[slot] = chosen;
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,138 @@
+package my.demo.springboot.microservice.todo.it;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and throughput of a load test per phase and scenario. A phase is a part of the run, e.g. before and after
+ * the account-service was killed. Latencies are measured from when a request was due, service times from when it was
+ * sent; the difference is the time it waited for a free thread.
+ */
+class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+
+    private final List<Phase> phases = new ArrayList<>();
+
+    LoadReport(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a phase covering requests due from {@code startNanos} on, until the next phase starts.
+     */
+    void addPhase(final String phaseName, final long startNanos, final long endNanos) {
+        phases.add(new Phase(phaseName, startNanos, endNanos));
+    }
+
+    void record(final LoadScenario scenario, final long dueNanos, final long sentNanos, final long doneNanos,
+            final boolean succeeded) {
+        phase(dueNanos).record(scenario, doneNanos - dueNanos, doneNanos - sentNanos, succeeded);
+    }
+
+    long requests(final String phaseName) {
+        return phase(phaseName).scenarios.values().stream().mapToLong(result -> result.latencies.getTotalCount()).sum();
+    }
+
+    long errors(final String phaseName) {
+        return phase(phaseName).scenarios.values().stream().mapToLong(result -> result.errors.get()).sum();
+    }
+
+    /**
+     * Prints a summary and writes the full percentile distributions to {@code target/load/}, where they can be
+     * plotted with HdrHistogram's plotter.
+     */
+    void print(final PrintStream out) throws FileNotFoundException {
+        final File directory = new File(PathUtils.getProjectRoot() + "/todo-integrationtest/target/load");
+        directory.mkdirs();
+
+        out.println(String.format("%s: latency from the due time in ms, service time in parentheses", name));
+        for (final Phase phase : phases) {
+            final double seconds = (phase.endNanos - phase.startNanos) / 1e9;
+            for (final Map.Entry<LoadScenario, ScenarioResult> entry : phase.scenarios.entrySet()) {
+                final Histogram latencies = entry.getValue().latencies;
+                final Histogram serviceTimes = entry.getValue().serviceTimes;
+                if (latencies.getTotalCount() == 0) {
+                    continue;
+                }
+
+                out.println(String.format("%-8s %-14s %7d requests %5d errors %8.1f/s"
+                                + "  p50 %8.2f  p90 %8.2f  p99 %8.2f (%8.2f)  p99.9 %8.2f  max %8.2f (%8.2f)",
+                        phase.name, entry.getKey().getKey(), latencies.getTotalCount(), entry.getValue().errors.get(),
+                        latencies.getTotalCount() / seconds, millis(latencies, 50), millis(latencies, 90),
+                        millis(latencies, 99), millis(serviceTimes, 99), millis(latencies, 99.9),
+                        latencies.getMaxValue() / NANOS_PER_MILLI, serviceTimes.getMaxValue() / NANOS_PER_MILLI));
+
+                try (PrintStream file = new PrintStream(new File(directory,
+                        String.format("%s-%s-%s.hgrm", name, phase.name, entry.getKey().getKey())))) {
+                    latencies.outputPercentileDistribution(file, NANOS_PER_MILLI);
+                }
+            }
+        }
+    }
+
+    private Phase phase(final long dueNanos) {
+        for (int i = phases.size() - 1; i > 0; i--) {
+            if (dueNanos >= phases.get(i).startNanos) {
+                return phases.get(i);
+            }
+        }
+        return phases.get(0);
+    }
+
+    private Phase phase(final String phaseName) {
+        return phases.stream().filter(phase -> phase.name.equals(phaseName)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No phase " + phaseName));
+    }
+
+    private static double millis(final Histogram histogram, final double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    private static final class Phase {
+
+        private final String name;
+        private final long startNanos;
+        private final long endNanos;
+        private final Map<LoadScenario, ScenarioResult> scenarios = new EnumMap<>(LoadScenario.class);
+
+        private Phase(final String name, final long startNanos, final long endNanos) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            for (final LoadScenario scenario : LoadScenario.values()) {
+                scenarios.put(scenario, new ScenarioResult());
+            }
+        }
+
+        private void record(final LoadScenario scenario, final long latencyNanos, final long serviceNanos,
+                final boolean succeeded) {
+            final ScenarioResult result = scenarios.get(scenario);
+            result.latencies.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+            result.serviceTimes.recordValue(Math.min(serviceNanos, HIGHEST_TRACKABLE_NANOS));
+            if (!succeeded) {
+                result.errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class ScenarioResult {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Histogram serviceTimes = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,43 @@
+package my.demo.springboot.microservice.todo.it;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The requests {@link LoadGenerator} sends, named as in the request mix, e.g. {@code todos=20,todo=30,accountTodos=40,addTodo=10}.
+ */
+enum LoadScenario {
+
+    FIND_ALL("todos"),
+    FIND_BY_ID("todo"),
+    FIND_ALL_BY_ACCOUNT("accountTodos"),
+    ADD_TODO("addTodo");
+
+    private final String key;
+
+    LoadScenario(final String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Map<LoadScenario, Integer> parseMix(final String mix) {
+        final Map<LoadScenario, Integer> weights = new EnumMap<>(LoadScenario.class);
+        for (final String entry : mix.split(",")) {
+            final String[] keyAndWeight = entry.trim().split("=");
+            weights.put(byKey(keyAndWeight[0].trim()), Integer.parseInt(keyAndWeight[1].trim()));
+        }
+        return weights;
+    }
+
+    private static LoadScenario byKey(final String key) {
+        for (final LoadScenario scenario : values()) {
+            if (scenario.key.equals(key)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown scenario %s in the request mix", key));
+    }
+}
@@ -0,0 +1,55 @@
+package my.demo.springboot.microservice.todo.it;
+
+import java.util.Map;
+
+/**
+ * How {@link LoadGenerator} loads the todo-service, read from system properties, e.g.
+ * {@code mvn verify -P load-test -Dload.rate=500 -Dload.concurrency=64}.
+ */
+class LoadSettings {
+
+    private final int concurrency;
+    private final int rate;
+    private final int durationSeconds;
+    private final Map<LoadScenario, Integer> mix;
+
+    LoadSettings(final int concurrency, final int rate, final int durationSeconds, final Map<LoadScenario, Integer> mix) {
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.mix = mix;
+    }
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(Integer.getInteger("load.concurrency", 32), Integer.getInteger("load.rate", 200),
+                Integer.getInteger("load.duration-seconds", 30),
+                LoadScenario.parseMix(System.getProperty("load.mix", "todos=20,todo=30,accountTodos=40,addTodo=10")));
+    }
+
+    /**
+     * The number of threads sending requests, which limits how many can be outstanding at once.
+     */
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Requests per second, over all scenarios.
+     */
+    int getRate() {
+        return rate;
+    }
+
+    int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    Map<LoadScenario, Integer> getMix() {
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d requests/s for %d s from %d threads, mix %s", rate, durationSeconds, concurrency, mix);
+    }
+}
@@ -1,7 +1,14 @@
 package my.demo.springboot.microservice.todo.it;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class ServiceEnvironment {
 
@@ -17,8 +24,12 @@ public class ServiceEnvironment {
     public static final String EUREKA_SERVICE_VERSION="0.0.1-SNAPSHOT";
     public static final int EUREKA_SERVICE_PORT=8761;
 
+    private static final boolean REUSE_SERVICES = !"false".equals(System.getProperty("services.reuse"));
+
     private static final Map<Instance, SpringBootServiceWrapper> instances = new LinkedHashMap<>();
 
+    private static boolean stopOnExit;
+
     static {
         ServiceEnvironment.addEurekaInstance();
         ServiceEnvironment.addAccountInstance();
@@ -46,12 +57,65 @@ public class ServiceEnvironment {
         return ServiceEnvironment.instances.get(Instance.TODO);
     }
 
-    public static void startServices() {
-        ServiceEnvironment.instances.values().forEach(springBootServiceWrapper -> { springBootServiceWrapper.startService(); });
+    /**
+     * Starts eureka and then the services registering with it side by side. Services already running are reused, and
+     * the services started here stay up for the following test classes until the JVM exits, unless
+     * {@code -Dservices.reuse=false} is set.
+     */
+    public static synchronized void startServices() {
+        final SpringBootServiceWrapper eureka = ServiceEnvironment.instances.get(Instance.EUREKA);
+        if (eureka != null) {
+            eureka.startService();
+        }
+        ServiceEnvironment.inParallel(ServiceEnvironment.clients(), SpringBootServiceWrapper::startService);
+
+        if (ServiceEnvironment.REUSE_SERVICES && !ServiceEnvironment.stopOnExit) {
+            Runtime.getRuntime().addShutdownHook(new Thread(ServiceEnvironment::stopServices, "service-shutdown"));
+            ServiceEnvironment.stopOnExit = true;
+        }
     }
 
-    public static void shutdownServices() {
-        ServiceEnvironment.instances.values().forEach(springBootServiceWrapper -> { springBootServiceWrapper.stopService(); });
+    public static synchronized void shutdownServices() {
+        if (!ServiceEnvironment.REUSE_SERVICES) {
+            ServiceEnvironment.stopServices();
+        }
+    }
+
+    // stops what was started here, in the reverse order of the start
+    private static synchronized void stopServices() {
+        ServiceEnvironment.inParallel(ServiceEnvironment.clients(), ServiceEnvironment::stopIfStarted);
+        final SpringBootServiceWrapper eureka = ServiceEnvironment.instances.get(Instance.EUREKA);
+        if (eureka != null) {
+            ServiceEnvironment.stopIfStarted(eureka);
+        }
+    }
+
+    private static void stopIfStarted(final SpringBootServiceWrapper service) {
+        if (service.isStarted()) {
+            service.stopService();
+        }
+    }
+
+    private static List<SpringBootServiceWrapper> clients() {
+        return ServiceEnvironment.instances.entrySet().stream().filter(entry -> entry.getKey() != Instance.EUREKA)
+                .map(Map.Entry::getValue).collect(Collectors.toList());
+    }
+
+    private static void inParallel(final List<SpringBootServiceWrapper> services,
+            final Consumer<SpringBootServiceWrapper> action) {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(services.size(), 1));
+        try {
+            CompletableFuture.allOf(services.stream()
+                    .map(service -> CompletableFuture.runAsync(() -> action.accept(service), executor))
+                    .toArray(CompletableFuture[]::new)).join();
+        } catch(final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
     }
 
     public static SpringBootServiceWrapper getInstance(final Instance instance) {
@@ -2,10 +2,19 @@ package my.demo.springboot.microservice.todo.it;
 
 import static org.awaitility.Awaitility.await;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import org.assertj.core.util.Lists;
 import org.json.JSONObject;
@@ -25,42 +34,93 @@ public class SpringBootServiceWrapper {
     private final String version;
     private final int port;
 
+    private Process process;
+
     public static final long MAX_ENDPOINT_STARTUP_TIME = 60L;
     public static final long MAX_ENDPOINT_SHUTDOWN_TIME = 15L;
     public static final long MAX_ENDPOINT_DEREG_TIME = 60L;
 
+    // -Dservices.fast-start=true starts the services as built by the fast-start Maven profile
+    private static final boolean FAST_START = Boolean.getBoolean("services.fast-start");
+
+    // logged by Spring Boot once the application context and the web server are up
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in [0-9.]+ seconds");
+
     public SpringBootServiceWrapper(final String serviceName, final String version, final int port) {
         this.serviceName=serviceName;
         this.version=version;
         this.port=port;
     }
 
+    /**
+     * Starts the service and waits until it reports it has started; a service that is already up on its port, e.g.
+     * started by an earlier test class or by hand, is reused as it is.
+     */
     public void startService() {
-        final List<String> arguments = Lists.newArrayList("java", "-jar", executable(serviceName, version));
+        if (isUp()) {
+            SpringBootServiceWrapper.logger.info("reusing running {}-service", serviceName);
+            return;
+        }
+
+        final List<String> arguments = SpringBootServiceWrapper.FAST_START ? fastStartArguments()
+                : Lists.newArrayList("java", "-jar", executable(serviceName, version));
         arguments.addAll(defaultArgs);
 
         final ProcessBuilder processBuilder = new ProcessBuilder(arguments);
         processBuilder.redirectErrorStream(true);
+        if (SpringBootServiceWrapper.FAST_START) {
+            processBuilder.directory(new File(targetPath(serviceName)));
+        }
 
         final File logFile = new File(logPath(serviceName));
-        processBuilder.redirectOutput(ProcessBuilder.Redirect.appendTo(logFile));
+        final CompletableFuture<Void> started = new CompletableFuture<>();
         Process service = null;
 
         try {
             service = processBuilder.start();
+            final Process output = service;
+            final Thread logWriter = new Thread(() -> writeLog(output, logFile, started), serviceName + "-service-log");
+            logWriter.setDaemon(true);
+            logWriter.start();
+
+            // the service logs that it has started once its web server is up, the health check only confirms it
+            started.get(SpringBootServiceWrapper.MAX_ENDPOINT_STARTUP_TIME, TimeUnit.SECONDS);
             await().atMost(SpringBootServiceWrapper.MAX_ENDPOINT_STARTUP_TIME, TimeUnit.SECONDS).until(endpointIsUp());
         } catch(final Exception e) {
             e.printStackTrace();
+            if (service != null) {
+                service.destroyForcibly();
+            }
             throw new IllegalStateException(String.format("couldn't start %s-service", serviceName));
         }
 
         if (!service.isAlive()) {
-            throw new IllegalStateException(String.format("$s-service not started", serviceName));
+            throw new IllegalStateException(String.format("%s-service not started", serviceName));
         }
 
+        process = service;
         SpringBootServiceWrapper.logger.info(String.format("started %s-service", serviceName));
     }
 
+    /**
+     * Whether this wrapper started the service, as opposed to reusing one that was already running.
+     */
+    public boolean isStarted() {
+        return process != null;
+    }
+
+    /**
+     * Kills the service without a shutdown, the way a crashed instance disappears.
+     */
+    public void killService() {
+        if (process != null) {
+            process.destroyForcibly();
+            awaitExit();
+        }
+        await().atMost(SpringBootServiceWrapper.MAX_ENDPOINT_SHUTDOWN_TIME, TimeUnit.SECONDS).until(endpointIsDown());
+        SpringBootServiceWrapper.logger.info("killed {}-service", serviceName);
+    }
+
     public void stopService() {
         try {
             await().atMost(SpringBootServiceWrapper.MAX_ENDPOINT_SHUTDOWN_TIME, TimeUnit.SECONDS).until(endpointIsShutdown());
@@ -68,9 +128,52 @@ public class SpringBootServiceWrapper {
             e.printStackTrace();
             throw new IllegalStateException(String.format("couldn't stop %s-service", serviceName));
         }
+        if (process != null) {
+            awaitExit();
+        }
         SpringBootServiceWrapper.logger.info(String.format("shutdown %s-service", serviceName));
     }
 
+    private boolean isUp() {
+        try {
+            return endpointIsUp().call();
+        } catch(final Exception e) {
+            return false;
+        }
+    }
+
+    // the process is gone once it has exited, so there is nothing left to poll for
+    private void awaitExit() {
+        try {
+            if (!process.waitFor(SpringBootServiceWrapper.MAX_ENDPOINT_SHUTDOWN_TIME, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor(SpringBootServiceWrapper.MAX_ENDPOINT_SHUTDOWN_TIME, TimeUnit.SECONDS);
+            }
+        } catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        process = null;
+    }
+
+    // copies the output of the service to its log file and completes started when the service has started, or
+    // exceptionally when it exits before
+    private void writeLog(final Process service, final File logFile, final CompletableFuture<Void> started) {
+        try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(service.getInputStream(), StandardCharsets.UTF_8));
+                Writer log = new OutputStreamWriter(new FileOutputStream(logFile, true), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                log.write(line);
+                log.write(System.lineSeparator());
+                log.flush();
+                if (!started.isDone() && STARTED.matcher(line).find()) {
+                    started.complete(null);
+                }
+            }
+        } catch(final IOException e) {
+            started.completeExceptionally(e);
+        }
+        started.completeExceptionally(new IllegalStateException(String.format("%s-service exited", serviceName)));
+    }
+
     public Callable<Boolean> endpointIsUp() {
         return endpointState(String.format("http://localhost:%s/actuator/health", port), true);
     }
@@ -93,8 +196,18 @@ public class SpringBootServiceWrapper {
             "--logging.level.org.springframework=WARN");
 
     private String executable(final String serviceName, final String version) {
-        return PathUtils.getProjectRoot() +
-            String.format("/%s-service/target/%s-service-%s.jar",serviceName, serviceName, version);
+        return targetPath(serviceName) + String.format("/%s-service-%s-exec.jar", serviceName, version);
+    }
+
+    // the jar and the class data sharing archive of the fast-start Maven profile, named as in its training start, or
+    // the archive isn't used
+    private List<String> fastStartArguments() {
+        return Lists.newArrayList("java", String.format("-XX:SharedArchiveFile=%s-service.jsa", serviceName), "-jar",
+                String.format("%s-service-%s-fast-start.jar", serviceName, version), "--spring.profiles.active=fast-start");
+    }
+
+    private String targetPath(final String serviceName) {
+        return PathUtils.getProjectRoot() + String.format("/%s-service/target", serviceName);
     }
 
     private String logPath(final String serviceName) {
@@ -78,11 +78,12 @@ public class TodoApplicationIntegrationTest {
     }
 
     @Test
-    public void givenTodos_whenFindAllByWrongAccountAndAccountServiceIsDown_thenAccountNotFoundInCache() throws Exception {
+    public void givenTodos_whenFindAllByWrongAccountAndAccountServiceIsDown_thenAccountNotFoundInReplica() throws Exception {
         stopIfRunning(Instance.ACCOUNT, ServiceEnvironment.TODO_SERVICE_PORT);
         assertNull(ServiceEnvironment.getInstance(Instance.ACCOUNT));
 
-        assertTrue(errorResponseFromTodoService().contains("Account with id 4e696b86-257f-4887-8bae-027d8e883637 not found in cache"));
+        // the fallback answers from the replica of all account ids, which doesn't hold this one
+        assertTrue(errorResponseFromTodoService().contains("Account with id 4e696b86-257f-4887-8bae-027d8e883637 not found"));
     }
 
     @Test
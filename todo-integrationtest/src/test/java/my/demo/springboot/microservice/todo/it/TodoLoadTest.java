@@ -0,0 +1,64 @@
+package my.demo.springboot.microservice.todo.it;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Load tests against the services started as jars, only run by {@code mvn verify -P load-test}. They print latency
+ * reports rather than asserting latencies, see {@link LoadSettings} for the load and {@link LoadReport} for the
+ * reports.
+ */
+public class TodoLoadTest {
+
+    private static final UUID ACCOUNT_ONE_ID = UUID.fromString("4e696b86-257f-4887-8bae-027d8e883638");
+    private static final UUID ACCOUNT_TWO_ID = UUID.fromString("a52dc637-d932-4998-bb00-fe7f248319fb");
+
+    private static LoadGenerator loadGenerator;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        ServiceEnvironment.startServices();
+
+        loadGenerator = new LoadGenerator("http://localhost:" + ServiceEnvironment.TODO_SERVICE_PORT,
+                Arrays.asList(ACCOUNT_ONE_ID, ACCOUNT_TWO_ID));
+        loadGenerator.prepare();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        ServiceEnvironment.shutdownServices();
+    }
+
+    @Test
+    public void givenAllServicesUp_whenLoaded_thenNoRequestFails() throws Exception {
+        final LoadReport report = loadGenerator.run("steady", LoadSettings.fromSystemProperties(), null);
+        report.print(System.out);
+
+        assertEquals(0, report.errors("steady"));
+    }
+
+    @Test
+    public void givenAccountServiceKilledMidRun_whenLoaded_thenLatenciesAreReported() throws Exception {
+        final LoadReport report;
+        try {
+            report = loadGenerator.run("account-killed", LoadSettings.fromSystemProperties(), () -> {
+                ServiceEnvironment.getInstance(Instance.ACCOUNT).killService();
+                ServiceEnvironment.removeInstance(Instance.ACCOUNT);
+            });
+        } finally {
+            if (ServiceEnvironment.getInstance(Instance.ACCOUNT) == null) {
+                ServiceEnvironment.addAccountInstance().startService();
+            }
+        }
+        report.print(System.out);
+
+        // after the kill requests are answered by the fallback or fail, the report shows how many of them failed
+        assertEquals(0, report.errors("before"));
+    }
+}
@@ -0,0 +1,43 @@
+package my.demo.springboot.microservice.todo;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import my.demo.springboot.microservice.todo.client.AccountReplica;
+import my.demo.springboot.microservice.todo.store.TodoStore;
+
+/**
+ * Metrics beyond those of Spring Boot, exported at {@code /actuator/prometheus}: {@code @Timed} methods such as those
+ * of the todo service, the HAL rendering of every todo as {@code todo.hal}, and gauges of the sizes of the todo store
+ * and the account replica. Timers named {@code todo.*}
+ * publish percentile histograms, see {@code management.metrics.distribution} in the application.yml.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    TimedAspect timedAspect(final MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    MeterBinder todoGauges(final TodoConfiguration todoConfiguration, final AccountReplica accountReplica) {
+        return registry -> {
+            Gauge.builder("todo.store.size", todoConfiguration.todoStore(), TodoStore::size)
+                    .description("Number of stored todos")
+                    .register(registry);
+            Gauge.builder("todo.account-replica.size", accountReplica, AccountReplica::size)
+                    .description("Number of account ids in the replica")
+                    .register(registry);
+            Gauge.builder("todo.account-replica.age", accountReplica,
+                    replica -> replica.isLoaded() ? replica.ageMillis() : Double.NaN)
+                    .description("Time since the replica was last synchronized")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package my.demo.springboot.microservice.todo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.hateoas.core.AnnotationRelProvider;
+import org.springframework.hateoas.hal.Jackson2HalModule;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+
+/**
+ * Wiring of the reactive mode, which is enabled by {@code spring.main.web-application-type=reactive} (see the
+ * {@code reactive} profile). Spring HATEOAS only renders HAL for Spring MVC, so the JSON encoder of WebFlux gets
+ * a HAL aware object mapper; it also writes {@code application/x-ndjson} as a stream.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration implements WebFluxConfigurer {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Bean
+    @LoadBalanced
+    WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(final ServerCodecConfigurer configurer) {
+        final ObjectMapper halObjectMapper = objectMapper.copy();
+        halObjectMapper.registerModule(new Jackson2HalModule());
+        halObjectMapper.setHandlerInstantiator(
+                new Jackson2HalModule.HalHandlerInstantiator(new AnnotationRelProvider(), null, null));
+
+        final Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(halObjectMapper, MediaTypes.HAL_JSON,
+                MediaType.APPLICATION_JSON, MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON);
+        encoder.setStreamingMediaTypes(Arrays.asList(MediaType.APPLICATION_STREAM_JSON, APPLICATION_NDJSON));
+        configurer.defaultCodecs().jackson2JsonEncoder(encoder);
+    }
+}
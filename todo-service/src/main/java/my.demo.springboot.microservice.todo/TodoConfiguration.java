@@ -2,7 +2,6 @@ package my.demo.springboot.microservice.todo;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -10,11 +9,12 @@ import java.util.stream.Stream;
 import org.springframework.context.annotation.Configuration;
 
 import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.store.TodoStore;
 
 @Configuration
 public class TodoConfiguration {
 
-    private Map<UUID, List<Todo>> todoRepository = null;
+    private final TodoStore todoStore;
 
     private final List<Todo> todos;
 
@@ -22,7 +22,9 @@ public class TodoConfiguration {
     private final UUID accountTwoId = UUID.fromString("a52dc637-d932-4998-bb00-fe7f248319fb");
 
 
-    public TodoConfiguration() {
+    public TodoConfiguration(final TodoStore todoStore) {
+        this.todoStore = todoStore;
+
         final Stream<String>
                 todoStream = Stream.of(accountOneId.toString() + ",John.Doe@foo.bar,Clean Dishes,false",
                 accountOneId.toString() + ",John.Doe@foo.bar,Watch NBA,false", accountTwoId.toString() + ",Jane.Doe@foo.bar,Pay Bills,false");
@@ -32,12 +34,14 @@ public class TodoConfiguration {
             return new Todo(UUID.randomUUID(), UUID.fromString(info[0]), info[1], info[2], Boolean.getBoolean(info[3]));
         }).collect(Collectors.toCollection(ArrayList::new));
 
-        todoRepository = todos.stream()
-                .collect(Collectors.groupingBy(Todo::getAccountId));
+        // a recovered store keeps the todos seeded by an earlier run
+        if (todoStore.size() == 0) {
+            todos.forEach(todoStore::add);
+        }
     }
 
-    public Map<UUID, List<Todo>> todoRepository() {
-        return todoRepository;
+    public TodoStore todoStore() {
+        return todoStore;
     }
 
     public UUID getAccountOneId() {
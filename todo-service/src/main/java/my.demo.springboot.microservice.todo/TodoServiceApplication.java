@@ -2,21 +2,56 @@ package my.demo.springboot.microservice.todo;
 
 import static org.springframework.boot.SpringApplication.run;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import my.demo.springboot.microservice.support.ExecutorConfiguration;
+import my.demo.springboot.microservice.support.StartupConfiguration;
+import my.demo.springboot.microservice.todo.store.InMemoryTodoStore;
+import my.demo.springboot.microservice.todo.store.MappedTodoStore;
+import my.demo.springboot.microservice.todo.store.PersistentTodoStore;
+import my.demo.springboot.microservice.todo.store.TodoStore;
 
 @SpringBootApplication
 @EnableEurekaClient
 @EnableFeignClients
 @EnableCircuitBreaker
+@Import({ ExecutorConfiguration.class, StartupConfiguration.class })
 public class TodoServiceApplication {
 
     @Bean
-    TodoConfiguration todoConfiguration() {
-        return new TodoConfiguration();
+    TodoStore todoStore(@Value("${todo.store.type:heap}") final String storeType,
+            @Value("${todo.store.directory:data/todos-mapped}") final String storeDirectory,
+            @Value("${todo.persistence.enabled:false}") final boolean persistenceEnabled,
+            @Value("${todo.persistence.directory:data/todos}") final String directory,
+            @Value("${todo.persistence.snapshot-interval-seconds:300}") final long snapshotIntervalSeconds)
+            throws IOException {
+        final TodoStore todoStore;
+        if ("heap".equals(storeType)) {
+            todoStore = new InMemoryTodoStore();
+        } else if ("mapped".equals(storeType)) {
+            todoStore = MappedTodoStore.open(Paths.get(storeDirectory));
+        } else {
+            throw new IllegalArgumentException(String.format("Unknown todo store type %s", storeType));
+        }
+
+        if (!persistenceEnabled) {
+            return todoStore;
+        }
+        return PersistentTodoStore.open(todoStore, Paths.get(directory), snapshotIntervalSeconds);
+    }
+
+    @Bean
+    TodoConfiguration todoConfiguration(final TodoStore todoStore) {
+        return new TodoConfiguration(todoStore);
     }
 
     public static void main(final String[] args) {
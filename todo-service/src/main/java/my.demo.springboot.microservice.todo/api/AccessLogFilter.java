@@ -0,0 +1,71 @@
+package my.demo.springboot.microservice.todo.api;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Logs requests to the {@code access} logger, sampled per endpoint: only the first and then every
+ * {@code todo.access-log.sample-every}th request of an endpoint is logged, so a hot endpoint neither floods the log
+ * nor hides the rare ones. Server errors are always logged.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+
+    private final long sampleEvery;
+
+    private final ConcurrentMap<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+
+    public AccessLogFilter(@Value("${todo.access-log.sample-every:100}") final long sampleEvery) {
+        this.sampleEvery = Math.max(sampleEvery, 1);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+            final FilterChain filterChain) throws ServletException, IOException {
+        if (!accessLogger.isInfoEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            final String endpoint = endpoint(request);
+            final int status = response.getStatus();
+            if (status >= 500 || sampled(endpoint)) {
+                accessLogger.info("{} {} {} {} ms ({}, 1 in {})", request.getMethod(), request.getRequestURI(), status,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), endpoint, sampleEvery);
+            }
+        }
+    }
+
+    private boolean sampled(final String endpoint) {
+        return requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).getAndIncrement() % sampleEvery == 0;
+    }
+
+    // the path template rather than the path, which would make every todo an endpoint of its own
+    private static String endpoint(final HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+}
@@ -0,0 +1,121 @@
+package my.demo.springboot.microservice.todo.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resources;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import my.demo.springboot.microservice.todo.domain.ReactiveTodoServiceImpl;
+import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.domain.TodoResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux variant of {@link TodoController}, active when the service runs as a reactive web application. It has
+ * neither conditional GETs nor the updates with their ETags yet.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTodoController {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private ReactiveTodoServiceImpl todoServiceImpl;
+
+    @GetMapping(path = TodoLinks.TODOS_PATH, produces = "application/hal+json")
+    public Mono<Resources<TodoResource>> findAll(@RequestParam(value = "limit", required = false) final Integer limit,
+            @RequestParam(value = "after", required = false) final UUID after, final ServerHttpRequest request){
+        logger.debug("findAll({}, {})", limit, after);
+
+        final TodoLinks links = TodoLinks.fromRequest(request);
+        if (limit == null) {
+            return todoServiceImpl.findAll().collectList().map(todos -> todoResources(todos, links));
+        }
+
+        final int pageSize = Math.min(Math.max(limit, 1), TodoController.MAX_PAGE_SIZE);
+        return todoServiceImpl.findAll(after, pageSize).collectList().map(todos -> {
+            final Resources<TodoResource> resources = todoResources(todos, links);
+            if (todos.size() == pageSize) {
+                final String next = UriComponentsBuilder.fromHttpRequest(request)
+                        .replaceQueryParam("limit", pageSize)
+                        .replaceQueryParam("after", todos.get(todos.size() - 1).getTodoId())
+                        .build().toUriString();
+                resources.add(new Link(next, Link.REL_NEXT));
+            }
+            return resources;
+        });
+    }
+
+    @GetMapping(path = "/todos:stream", produces = "application/x-ndjson")
+    public Flux<TodoResource> streamAll(final ServerHttpRequest request){
+        logger.debug("streamAll()");
+
+        final TodoLinks links = TodoLinks.fromRequest(request);
+        return pagesAfter(null).map(todo -> new TodoResource(todo, links));
+    }
+
+    @GetMapping(path = TodoLinks.TODO_PATH, produces = "application/hal+json")
+    public Mono<TodoResource> findById(@PathVariable("id") final UUID todoId, final ServerHttpRequest request){
+        logger.debug("findById({})", todoId);
+
+        return todoServiceImpl.findById(todoId).map(todo -> new TodoResource(todo, TodoLinks.fromRequest(request)));
+    }
+
+    @GetMapping(path = TodoLinks.ACCOUNT_TODOS_PATH, produces = "application/hal+json")
+    public Mono<Resources<TodoResource>> findAllByAccount(@PathVariable("accountid") final UUID accountId,
+            final ServerHttpRequest request){
+        logger.debug("findAllByAccount({})", accountId);
+
+        final TodoLinks links = TodoLinks.fromRequest(request);
+        return todoServiceImpl.findAllByAccount(accountId).collectList().map(todos -> todoResources(todos, links));
+    }
+
+    @PostMapping(path = TodoLinks.TODOS_PATH)
+    public Mono<ResponseEntity<TodoResource>> addTodo(@RequestBody final Todo todo, final ServerHttpRequest request){
+        logger.debug("addTodo({})", todo);
+
+        return todoServiceImpl.addTodo(todo).map(result -> ResponseEntity.created(request.getURI())
+                .body(new TodoResource(result, TodoLinks.fromRequest(request))));
+    }
+
+    @PostMapping(path = "/todos:batch")
+    public Mono<List<TodoResult>> addTodos(@RequestBody final List<Todo> todos){
+        logger.debug("addTodos({} todos)", todos.size());
+
+        return todoServiceImpl.addTodos(todos);
+    }
+
+    // pages are only fetched when the client has consumed the previous one
+    private Flux<Todo> pagesAfter(final UUID after) {
+        return todoServiceImpl.findAll(after, TodoController.MAX_PAGE_SIZE).collectList().flatMapMany(page -> {
+            final Flux<Todo> todos = Flux.fromIterable(page);
+            if (page.size() < TodoController.MAX_PAGE_SIZE) {
+                return todos;
+            }
+            return todos.concatWith(Flux.defer(() -> pagesAfter(page.get(page.size() - 1).getTodoId())));
+        });
+    }
+
+    private static Resources<TodoResource> todoResources(final List<Todo> todos, final TodoLinks links) {
+        final List<TodoResource> resources = new ArrayList<>(todos.size());
+        todos.forEach(t -> resources.add(new TodoResource(t, links)));
+        return new Resources<>(resources);
+    }
+}
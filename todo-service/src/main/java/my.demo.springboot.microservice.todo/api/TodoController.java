@@ -1,90 +1,215 @@
 package my.demo.springboot.microservice.todo.api;
 
-import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
-
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resources;
-import org.springframework.hateoas.mvc.ControllerLinkBuilder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.domain.TodoPatch;
+import my.demo.springboot.microservice.todo.domain.TodoResult;
 import my.demo.springboot.microservice.todo.domain.TodoServiceImpl;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TodoController {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    // clients may keep what they read, but have to revalidate it with the ETag before reusing it
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
     private TodoServiceImpl todoServiceImpl;
 
-    @GetMapping(path = "/todos", produces = "application/hal+json")
-    public ResponseEntity<Resources<Todo>> findAll(){
-        logger.info("findAll()");
+    @Autowired
+    private ObjectMapper objectMapper;
 
-        List<Todo> todos = todoServiceImpl.findAll();
+    @GetMapping(path = TodoLinks.TODOS_PATH, produces = "application/hal+json")
+    public ResponseEntity<Resources<TodoResource>> findAll(@RequestParam(value = "limit", required = false) final Integer limit,
+            @RequestParam(value = "after", required = false) final UUID after, final ServletWebRequest request){
+        logger.debug("findAll({}, {})", limit, after);
 
-        return ResponseEntity.ok(todoResources(todos));
+        if (notModified(request, todoServiceImpl.todosETag())) {
+            return null;
+        }
+
+        if (limit == null) {
+            return ResponseEntity.ok(todoResources(todoServiceImpl.findAll()));
+        }
+
+        final int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        final List<Todo> todos = todoServiceImpl.findAll(after, pageSize);
+
+        final Resources<TodoResource> resources = todoResources(todos);
+        if (todos.size() == pageSize) {
+            final String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("limit", pageSize)
+                    .replaceQueryParam("after", todos.get(todos.size() - 1).getTodoId())
+                    .build().toUriString();
+            resources.add(new Link(next, Link.REL_NEXT));
+        }
+
+        return ResponseEntity.ok(resources);
     }
 
-    @GetMapping(path = "/todos/{id}", produces = "application/hal+json")
-    public ResponseEntity<Todo> findById(@PathVariable("id") UUID todoId){
-        logger.info(String.format("findById(%s)", todoId));
+    @GetMapping(path = "/todos:stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAll(){
+        logger.debug("streamAll()");
+
+        final TodoLinks links = TodoLinks.fromCurrentRequest();
+        final StreamingResponseBody body = outputStream -> {
+            final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+
+            UUID after = null;
+            List<Todo> page;
+            do {
+                page = todoServiceImpl.findAll(after, MAX_PAGE_SIZE);
+                for (final Todo todo : page) {
+                    generator.writeObject(new TodoResource(todo, links));
+                    after = todo.getTodoId();
+                }
+                generator.flush();
+            } while (page.size() == MAX_PAGE_SIZE);
+
+            generator.writeRaw('\n');
+            generator.close();
+        };
+
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping(path = TodoLinks.TODO_PATH, produces = "application/hal+json")
+    public ResponseEntity<TodoResource> findById(@PathVariable("id") UUID todoId, final ServletWebRequest request){
+        logger.debug("findById({})", todoId);
 
+        if (notModified(request, todoServiceImpl.todoETag(todoId))) {
+            return null;
+        }
         Todo todo = todoServiceImpl.findById(todoId);
 
-        return ResponseEntity.ok(todo);
+        return ResponseEntity.ok(new TodoResource(todo, TodoLinks.fromCurrentRequest()));
     }
 
-    @GetMapping(path = "/accounts/{accountid}/todos", produces = "application/hal+json")
-    public ResponseEntity<Resources<Todo>> findAllByAccount(@PathVariable("accountid") UUID accountId){
-        logger.info(String.format("findAllByAccount(%s)", accountId));
+    @GetMapping(path = TodoLinks.ACCOUNT_TODOS_PATH, produces = "application/hal+json")
+    public ResponseEntity<Resources<TodoResource>> findAllByAccount(@PathVariable("accountid") UUID accountId,
+            final ServletWebRequest request){
+        logger.debug("findAllByAccount({})", accountId);
+
+        if (notModified(request, todoServiceImpl.accountTodosETag(accountId))) {
+            return null;
+        }
 
         List<Todo> todos = todoServiceImpl.findAllByAccount(accountId);
 
         return ResponseEntity.ok(todoResources(todos));
     }
 
-    @PostMapping(path = "/todos")
-    public ResponseEntity<Todo> addTodo(@RequestBody final Todo todo){
-        logger.info(String.format("addTodo(%s)", todo));
+    @PostMapping(path = TodoLinks.TODOS_PATH)
+    public ResponseEntity<TodoResource> addTodo(@RequestBody final Todo todo){
+        logger.debug("addTodo({})", todo);
 
         Todo result = todoServiceImpl.addTodo(todo);
 
         final URI uri = ServletUriComponentsBuilder.fromCurrentRequest().build().toUri();
 
-        addLinkToSingleElement(result);
+        return ResponseEntity.created(uri).body(new TodoResource(result, TodoLinks.fromCurrentRequest()));
+    }
+
+    @PutMapping(path = TodoLinks.TODO_PATH, produces = "application/hal+json")
+    public ResponseEntity<TodoResource> updateTodo(@PathVariable("id") UUID todoId, @RequestBody final Todo todo,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch){
+        logger.debug("updateTodo({}, {}, {})", todoId, todo, ifMatch);
+
+        Todo result = todoServiceImpl.updateTodo(todoId, todo, ifMatch);
+
+        return updated(todoId, result);
+    }
+
+    @PatchMapping(path = TodoLinks.TODO_PATH, produces = "application/hal+json")
+    public ResponseEntity<TodoResource> patchTodo(@PathVariable("id") UUID todoId, @RequestBody final TodoPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch){
+        logger.debug("patchTodo({}, {}, {})", todoId, patch, ifMatch);
+
+        Todo result = todoServiceImpl.patchTodo(todoId, patch, ifMatch);
 
-        return ResponseEntity.created(uri).body(result);
+        return updated(todoId, result);
     }
 
-    private Resources<Todo> todoResources(List<Todo> todos) {
-        addLinkToList(todos);
-        return new Resources(todos);
+    @DeleteMapping(path = TodoLinks.TODO_PATH)
+    public ResponseEntity<Void> deleteTodo(@PathVariable("id") UUID todoId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch){
+        logger.debug("deleteTodo({}, {})", todoId, ifMatch);
+
+        todoServiceImpl.deleteTodo(todoId, ifMatch);
+
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping(path = "/todos:batch")
+    public ResponseEntity<List<TodoResult>> addTodos(@RequestBody final List<Todo> todos){
+        logger.debug("addTodos({} todos)", todos.size());
+
+        return ResponseEntity.ok(todoServiceImpl.addTodos(todos));
     }
 
-    private void addLinkToList(List<Todo> todos) {
-            todos.forEach(t-> { addLinkToSingleElement(t);
-        });
+    /**
+     * Sets the ETag and answers 304 to clients that already hold the representation it stands for; the body is then
+     * neither read nor rendered. Without a tag the request is always answered in full.
+     */
+    private static boolean notModified(final ServletWebRequest request, final String etag) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        return etag != null && request.checkNotModified(etag);
     }
 
-    private void addLinkToSingleElement(Todo todo) {
-        if(!todo.hasLink("self")) {
-            todo.add(linkTo(ControllerLinkBuilder.methodOn(TodoController.class).findById(todo.getTodoId())).withSelfRel());
-            todo.add(linkTo(ControllerLinkBuilder.methodOn(TodoController.class).findAllByAccount(todo.getAccountId())).withRel("accountTodos"));
-            todo.add(linkTo(ControllerLinkBuilder.methodOn(TodoController.class).findAll()).withRel("todos"));
+    /**
+     * Answers a write with the new ETag, so the client can send its next update without reading the todo again.
+     */
+    private ResponseEntity<TodoResource> updated(final UUID todoId, final Todo result) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        final String etag = todoServiceImpl.todoETag(todoId, result);
+        if (etag != null) {
+            response.eTag(etag);
         }
+        return response.body(new TodoResource(result, TodoLinks.fromCurrentRequest()));
+    }
+
+    private Resources<TodoResource> todoResources(List<Todo> todos) {
+        final TodoLinks links = TodoLinks.fromCurrentRequest();
+
+        final List<TodoResource> resources = new ArrayList<>(todos.size());
+        todos.forEach(t -> resources.add(new TodoResource(t, links)));
+        return new Resources<>(resources);
     }
 }
\ No newline at end of file
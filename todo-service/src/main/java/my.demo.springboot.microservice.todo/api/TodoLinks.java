@@ -0,0 +1,66 @@
+package my.demo.springboot.microservice.todo.api;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Builds the link hrefs of a todo from the request's base URI and the controller's path templates. The base URI
+ * is resolved once per instance and the templates are split into literal parts once per class, so every href
+ * is a plain string concatenation instead of a {@code linkTo(methodOn(...))} proxy invocation.
+ */
+public class TodoLinks {
+
+    public static final String TODOS_PATH = "/todos";
+    public static final String TODO_PATH = "/todos/{id}";
+    public static final String ACCOUNT_TODOS_PATH = "/accounts/{accountid}/todos";
+
+    public static final String REL_ACCOUNT_TODOS = "accountTodos";
+    public static final String REL_TODOS = "todos";
+
+    private static final String[] TODO_TEMPLATE = literals(TODO_PATH);
+    private static final String[] ACCOUNT_TODOS_TEMPLATE = literals(ACCOUNT_TODOS_PATH);
+
+    private final String todoPrefix;
+    private final String todoSuffix;
+    private final String accountTodosPrefix;
+    private final String accountTodosSuffix;
+    private final String todosHref;
+
+    public TodoLinks(final String baseUri) {
+        todoPrefix = baseUri + TODO_TEMPLATE[0];
+        todoSuffix = TODO_TEMPLATE[1];
+        accountTodosPrefix = baseUri + ACCOUNT_TODOS_TEMPLATE[0];
+        accountTodosSuffix = ACCOUNT_TODOS_TEMPLATE[1];
+        todosHref = baseUri + TODOS_PATH;
+    }
+
+    public static TodoLinks fromCurrentRequest() {
+        return new TodoLinks(ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString());
+    }
+
+    public static TodoLinks fromRequest(final ServerHttpRequest request) {
+        return new TodoLinks(UriComponentsBuilder.fromHttpRequest(request)
+                .replacePath(request.getPath().contextPath().value()).replaceQuery(null).build().toUriString());
+    }
+
+    public String selfHref(final Todo todo) {
+        return todoPrefix + todo.getTodoId() + todoSuffix;
+    }
+
+    public String accountTodosHref(final Todo todo) {
+        return accountTodosPrefix + todo.getAccountId() + accountTodosSuffix;
+    }
+
+    public String todosHref() {
+        return todosHref;
+    }
+
+    private static String[] literals(final String template) {
+        final int start = template.indexOf('{');
+        final int end = template.indexOf('}', start);
+        return new String[] { template.substring(0, start), template.substring(end + 1) };
+    }
+}
@@ -0,0 +1,25 @@
+package my.demo.springboot.microservice.todo.api;
+
+import org.springframework.hateoas.core.Relation;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Wire representation of a stored {@link Todo}. It only references the todo and the links of the current
+ * request, the links themselves are written by {@link TodoResourceSerializer} while the response is rendered.
+ */
+@Getter
+@RequiredArgsConstructor
+@Relation(collectionRelation = TodoLinks.REL_TODOS)
+@JsonSerialize(using = TodoResourceSerializer.class)
+public final class TodoResource {
+
+    private final Todo todo;
+
+    private final TodoLinks links;
+}
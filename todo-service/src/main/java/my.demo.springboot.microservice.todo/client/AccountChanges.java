@@ -0,0 +1,33 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class AccountChanges {
+
+    private UUID logId;
+
+    private long sequence;
+
+    private boolean resetRequired;
+
+    private List<Change> changes = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class Change {
+        private long sequence;
+        private String type;
+        private UUID accountId;
+
+        public boolean isCreated() {
+            return "CREATED".equals(type);
+        }
+    }
+}
@@ -3,12 +3,13 @@ package my.demo.springboot.microservice.todo.client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
-import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class AccountClient {
@@ -16,26 +17,54 @@ public class AccountClient {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
-    private LoadBalancerClient loadBalancerClient;
+    AccountProxy accountProxy;
 
     @Autowired
-    AccountProxy accountProxy;
+    private AccountValidityCache accountValidityCache;
+
+    @Autowired
+    private AccountRequestCollapser accountRequestCollapser;
+
+    @Autowired
+    private AccountReplica accountReplica;
+
+    @Value("${todo.account-client.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    @Value("${todo.account-client.batch.timeout-millis:2000}")
+    private long batchTimeoutMillis;
 
     public boolean isAccountValid(final UUID accountId) {
-        logger.info(String.format("isAccountValid(%s)", accountId));
+        logger.debug("isAccountValid({})", accountId);
 
-        logAccess();
+        if (accountReplica.isFresh()) {
+            return accountReplica.contains(accountId);
+        }
 
-        return accountProxy.findById(accountId).getStatusCode().is2xxSuccessful();
+        final Boolean cached = accountValidityCache.getIfPresent(accountId);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean valid = batchEnabled ? findBatched(accountId) : findSingle(accountId);
+        accountValidityCache.put(accountId, valid);
+
+        return valid;
     }
 
-    private void logAccess() {
-        ServiceInstance instance = loadBalancerClient.choose("account-service");
+    private boolean findSingle(final UUID accountId) {
+        return accountProxy.findById(accountId).getStatusCode().is2xxSuccessful();
+    }
 
-        if(instance != null) {
-            logger.info("logAccess(): Service {} called on host: {}, port: {}", instance.getServiceId(), instance.getHost(), instance.getPort());
-        } else {
-            logger.error("logAccess(): No services available!");
+    private boolean findBatched(final UUID accountId) {
+        try {
+            return accountRequestCollapser.isAccountValid(accountId).get(batchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException | TimeoutException e) {
+            logger.warn("findBatched(): batch lookup of {} failed, retrying single lookup: {}", accountId, e.toString());
+            return findSingle(accountId);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
         }
     }
 }
\ No newline at end of file
@@ -1,59 +1,96 @@
 package my.demo.springboot.microservice.todo.client;
 
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import com.netflix.hystrix.HystrixCommandKey;
+
 import feign.hystrix.FallbackFactory;
-import my.demo.springboot.microservice.todo.TodoConfiguration;
-import my.demo.springboot.microservice.todo.domain.Todo;
+import io.micrometer.core.instrument.MeterRegistry;
 
+/**
+ * Answers account lookups from the {@link AccountReplica} while the account-service fails, however stale it is. Before
+ * the replica is loaded the lookups fail as well.
+ * <p>
+ * Every use is counted as {@code todo.account-proxy.fallbacks}, tagged by method and whether the circuit was open, and
+ * the answers carry that outcome in {@link #OUTCOME_HEADER} for {@link InstrumentedAccountProxy}.
+ */
 @Component
 public class AccountFallbackFactory implements FallbackFactory<AccountProxy>{
 
+    static final String OUTCOME_HEADER = "X-Account-Fallback";
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Autowired
-    TodoConfiguration todoConfiguration;
+    private AccountReplica accountReplica;
 
     @Autowired
-    private LoadBalancerClient loadBalancerClient;
+    private MeterRegistry meterRegistry;
 
     @Override
     public AccountProxy create(final Throwable throwable) {
         return new AccountProxy() {
             @Override
             public ResponseEntity<Account> findById(final UUID id) {
-                logger.warn(String.format("findById(%s)", id));
+                logger.warn("findById({})", id);
+                final String outcome = count("findById", "AccountProxy#findById(UUID)");
 
-                if (loadBalancerClient.choose("account-service") == null) {
-                    if (localFakeCache().get(id) != null) {
-                        return ResponseEntity.ok(new Account(id, null, null, null));
-                    } else {
-                        throw new IllegalArgumentException(String.format("Account with id %s not found in cache.", id));
-                    }
+                if (!accountReplica.isLoaded()) {
+                    throw new IllegalArgumentException(throwable);
+                }
+                logger.debug("findById(): answering from a replica of age {} ms", accountReplica.ageMillis());
+
+                if (accountReplica.contains(id)) {
+                    return ResponseEntity.ok().header(OUTCOME_HEADER, outcome).body(new Account(id, null, null, null));
                 }
-                throw new IllegalArgumentException(throwable);
+                return ResponseEntity.notFound().header(OUTCOME_HEADER, outcome).build();
             }
-        };
-    }
 
-    private Map<UUID, Todo> localFakeCache() {
-        final UUID accountOneId = todoConfiguration.getAccountOneId();
-        final UUID accountTwoId = todoConfiguration.getAccountTwoId();
+            @Override
+            public ResponseEntity<AccountResources> findAllById(final Set<UUID> ids) {
+                logger.warn("findAllById({} ids)", ids.size());
+                final String outcome = count("findAllById", "AccountProxy#findAllById(Set)");
+
+                if (!accountReplica.isLoaded()) {
+                    // batch callers retry with findById
+                    throw new IllegalArgumentException(throwable);
+                }
+
+                final List<AccountResources.AccountResource> resources = new ArrayList<>();
+                for (final UUID id : ids) {
+                    if (accountReplica.contains(id)) {
+                        final AccountResources.AccountResource resource = new AccountResources.AccountResource();
+                        resource.setAccount(new Account(id, null, null, null));
+                        resources.add(resource);
+                    }
+                }
 
-        final Map<UUID, Todo> fallbackMap = new ConcurrentHashMap<>();
+                final AccountResources.Embedded embedded = new AccountResources.Embedded();
+                embedded.setAccountResourceList(resources);
 
-        fallbackMap.put(accountOneId, todoConfiguration.todoRepository().get(accountOneId).get(0));
-        fallbackMap.put(accountTwoId, todoConfiguration.todoRepository().get(accountTwoId).get(0));
+                final AccountResources accountResources = new AccountResources();
+                accountResources.setEmbedded(embedded);
+                return ResponseEntity.ok().header(OUTCOME_HEADER, outcome).body(accountResources);
+            }
+        };
+    }
 
-        return fallbackMap;
+    // Feign names the Hystrix command of a method after its Feign.configKey
+    private String count(final String method, final String commandKey) {
+        final HystrixCircuitBreaker circuitBreaker =
+                HystrixCircuitBreaker.Factory.getInstance(HystrixCommandKey.Factory.asKey(commandKey));
+        final String outcome = circuitBreaker != null && circuitBreaker.isOpen() ? "circuit-open" : "fallback";
+        meterRegistry.counter("todo.account-proxy.fallbacks", "method", method, "outcome", outcome).increment();
+        return outcome;
     }
 }
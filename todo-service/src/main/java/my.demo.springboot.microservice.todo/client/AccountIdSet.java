@@ -0,0 +1,122 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable set of account ids, stored as pairs of longs in a single open-addressing table. It needs 32 to 64 bytes
+ * per id instead of the ~100 of a {@code HashSet<UUID>}, and a lookup usually touches one or two adjacent slots.
+ */
+final class AccountIdSet {
+
+    private static final UUID NIL = new UUID(0, 0);
+
+    // both halves zero marks a free slot, the nil UUID is tracked separately
+    private final long[] slots;
+
+    private final int mask;
+
+    private final boolean containsNil;
+
+    private final int size;
+
+    private AccountIdSet(final long[] slots, final boolean containsNil, final int size) {
+        this.slots = slots;
+        this.mask = slots.length / 2 - 1;
+        this.containsNil = containsNil;
+        this.size = size;
+    }
+
+    static AccountIdSet of(final Collection<UUID> accountIds) {
+        int capacity = 2;
+        while (capacity < accountIds.size() * 2) {
+            capacity <<= 1;
+        }
+
+        final long[] slots = new long[capacity * 2];
+        final int mask = capacity - 1;
+        boolean containsNil = false;
+        int size = 0;
+        for (final UUID accountId : accountIds) {
+            final long most = accountId.getMostSignificantBits();
+            final long least = accountId.getLeastSignificantBits();
+            if (most == 0 && least == 0) {
+                size += containsNil ? 0 : 1;
+                containsNil = true;
+                continue;
+            }
+
+            int slot = hash(most, least) & mask;
+            while (slots[slot * 2] != 0 || slots[slot * 2 + 1] != 0) {
+                if (slots[slot * 2] == most && slots[slot * 2 + 1] == least) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (slots[slot * 2] == 0 && slots[slot * 2 + 1] == 0) {
+                slots[slot * 2] = most;
+                slots[slot * 2 + 1] = least;
+                size++;
+            }
+        }
+        return new AccountIdSet(slots, containsNil, size);
+    }
+
+    /**
+     * Returns a new set with the given changes applied, {@code true} adding an id and {@code false} removing it.
+     */
+    AccountIdSet with(final Map<UUID, Boolean> changes) {
+        final List<UUID> accountIds = new ArrayList<>(size + changes.size());
+        if (containsNil && !changes.containsKey(NIL)) {
+            accountIds.add(NIL);
+        }
+        for (int slot = 0; slot < slots.length; slot += 2) {
+            if (slots[slot] != 0 || slots[slot + 1] != 0) {
+                final UUID accountId = new UUID(slots[slot], slots[slot + 1]);
+                if (!changes.containsKey(accountId)) {
+                    accountIds.add(accountId);
+                }
+            }
+        }
+        changes.forEach((accountId, added) -> {
+            if (added) {
+                accountIds.add(accountId);
+            }
+        });
+        return of(accountIds);
+    }
+
+    boolean contains(final UUID accountId) {
+        final long most = accountId.getMostSignificantBits();
+        final long least = accountId.getLeastSignificantBits();
+        if (most == 0 && least == 0) {
+            return containsNil;
+        }
+
+        int slot = hash(most, least) & mask;
+        while (true) {
+            final long slotMost = slots[slot * 2];
+            final long slotLeast = slots[slot * 2 + 1];
+            if (slotMost == most && slotLeast == least) {
+                return true;
+            }
+            if (slotMost == 0 && slotLeast == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int hash(final long most, final long least) {
+        long h = most * 0x9e3779b97f4a7c15L ^ least;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        return (int) (h ^ (h >>> 32));
+    }
+}
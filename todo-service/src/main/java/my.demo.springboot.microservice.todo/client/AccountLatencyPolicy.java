@@ -0,0 +1,144 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Hedging and read timeouts of the account-service calls, derived per route, i.e. HTTP method and path with the ids
+ * left out, from the latencies of the last minute.
+ * <p>
+ * With {@code todo.account-client.hedging.enabled}, a call still unanswered after the {@code hedging.percentile} of
+ * the latencies is sent to a second instance as well. Each call earns {@code hedging.max-ratio} of a hedge, so when
+ * the account-service is slow for everyone the hedges stay a small share of the calls instead of doubling its load.
+ * With {@code todo.account-client.adaptive-timeout.enabled}, the read timeout is {@code multiplier} times the
+ * {@code adaptive-timeout.percentile}, kept between {@code min-millis} and {@code max-millis}. Both are off by default
+ * and start once a route has {@value #MIN_SAMPLES} latencies.
+ */
+@Component
+public class AccountLatencyPolicy {
+
+    static final String HEDGES = "todo.account-client.hedges";
+
+    static final long MIN_SAMPLES = 100;
+
+    private static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final long ESTIMATE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double MAX_HEDGE_BURST = 10;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${todo.account-client.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
+    @Value("${todo.account-client.hedging.percentile:0.95}")
+    private double hedgingPercentile;
+
+    @Value("${todo.account-client.hedging.max-ratio:0.05}")
+    private double maxHedgeRatio;
+
+    @Value("${todo.account-client.adaptive-timeout.enabled:false}")
+    private boolean adaptiveTimeoutEnabled;
+
+    @Value("${todo.account-client.adaptive-timeout.percentile:0.99}")
+    private double timeoutPercentile;
+
+    @Value("${todo.account-client.adaptive-timeout.multiplier:3}")
+    private double timeoutMultiplier;
+
+    @Value("${todo.account-client.adaptive-timeout.min-millis:100}")
+    private long minTimeoutMillis;
+
+    @Value("${todo.account-client.adaptive-timeout.max-millis:1000}")
+    private long maxTimeoutMillis;
+
+    private final ConcurrentMap<String, RollingLatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    // recomputed at most every second, reading the histogram costs more than a call should
+    private final ConcurrentMap<String, Estimate> estimates = new ConcurrentHashMap<>();
+
+    private double hedgeTokens;
+
+    void record(final String route, final long latencyNanos) {
+        latencies.computeIfAbsent(route, key -> new RollingLatencyHistogram(WINDOW_MILLIS)).record(latencyNanos);
+    }
+
+    /**
+     * The options of a call, with the adaptive read timeout if there is one yet.
+     */
+    Request.Options options(final String route, final Request.Options options) {
+        final long timeoutMillis = adaptiveTimeoutEnabled ? estimate(route).timeoutMillis : -1;
+        return timeoutMillis < 0 ? options : new Request.Options(options.connectTimeoutMillis(), (int) timeoutMillis);
+    }
+
+    /**
+     * How long to wait for a call before hedging it, or -1 if it is not to be hedged. Every call asked for earns its
+     * share of a hedge.
+     */
+    long hedgeDelayNanos(final String route) {
+        if (!hedgingEnabled) {
+            return -1;
+        }
+        synchronized (this) {
+            hedgeTokens = Math.min(hedgeTokens + maxHedgeRatio, MAX_HEDGE_BURST);
+        }
+        return estimate(route).hedgeDelayNanos;
+    }
+
+    /**
+     * Takes a hedge from the budget, if there is one left.
+     */
+    boolean tryHedge() {
+        final boolean allowed;
+        synchronized (this) {
+            allowed = hedgeTokens >= 1;
+            if (allowed) {
+                hedgeTokens -= 1;
+            }
+        }
+        meterRegistry.counter(HEDGES, "result", allowed ? "sent" : "denied").increment();
+        return allowed;
+    }
+
+    void hedgeWon() {
+        meterRegistry.counter(HEDGES, "result", "won").increment();
+    }
+
+    private Estimate estimate(final String route) {
+        final long now = System.nanoTime();
+        final Estimate estimate = estimates.get(route);
+        if (estimate != null && now - estimate.computedNanos < ESTIMATE_INTERVAL_NANOS) {
+            return estimate;
+        }
+
+        final RollingLatencyHistogram histogram = latencies.get(route);
+        final Estimate computed = histogram == null || histogram.count() < MIN_SAMPLES ? new Estimate(now, -1, -1)
+                : new Estimate(now, histogram.percentileNanos(hedgingPercentile),
+                        Math.min(Math.max(TimeUnit.NANOSECONDS.toMillis(
+                                (long) (histogram.percentileNanos(timeoutPercentile) * timeoutMultiplier)),
+                                minTimeoutMillis), maxTimeoutMillis));
+        estimates.put(route, computed);
+        return computed;
+    }
+
+    private static final class Estimate {
+
+        private final long computedNanos;
+        private final long hedgeDelayNanos;
+        private final long timeoutMillis;
+
+        private Estimate(final long computedNanos, final long hedgeDelayNanos, final long timeoutMillis) {
+            this.computedNanos = computedNanos;
+            this.hedgeDelayNanos = hedgeDelayNanos;
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+}
@@ -3,14 +3,27 @@ package my.demo.springboot.microservice.todo.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import java.util.Set;
 import java.util.UUID;
 
-@FeignClient(name = "account-service", fallbackFactory = AccountFallbackFactory.class)
+/**
+ * The Feign client itself is only injected into {@link InstrumentedAccountProxy}, everyone else gets the instrumented
+ * one.
+ */
+@FeignClient(name = "account-service", configuration = AccountProxyConfiguration.class,
+        fallbackFactory = AccountFallbackFactory.class, decode404 = true,
+        qualifier = AccountProxy.FEIGN_CLIENT, primary = false)
 public interface AccountProxy {
 
+    String FEIGN_CLIENT = "feignAccountProxy";
+
     @RequestMapping(value = "/accounts/{id}", produces = "application/hal+json", method= RequestMethod.GET)
     public ResponseEntity<Account> findById(@PathVariable final UUID id);
+
+    @RequestMapping(value = "/accounts:batchGet", consumes = "application/json", produces = "application/hal+json", method= RequestMethod.POST)
+    public ResponseEntity<AccountResources> findAllById(@RequestBody final Set<UUID> ids);
 }
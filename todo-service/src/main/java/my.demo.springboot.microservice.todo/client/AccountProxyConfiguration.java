@@ -0,0 +1,28 @@
+package my.demo.springboot.microservice.todo.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.openfeign.ribbon.LoadBalancerFeignClient;
+import org.springframework.context.annotation.Bean;
+
+import feign.Client;
+
+/**
+ * Feign configuration of {@link AccountProxy} only, hence no {@code @Configuration}: keeps the Ribbon load balancing
+ * of the default client, hedges its reads and adapts their timeouts, tracks the latency of the chosen instances and
+ * makes GET requests conditional.
+ */
+class AccountProxyConfiguration {
+
+    @Bean
+    Client feignClient(final CachingSpringLoadBalancerFactory loadBalancerFactory,
+            final SpringClientFactory clientFactory,
+            final InstanceLoads instanceLoads, final AccountLatencyPolicy accountLatencyPolicy,
+            @Value("${todo.account-client.conditional-cache.maximum-size:10000}") final long maximumSize,
+            @Value("${todo.account-client.hedging.max-threads:64}") final int hedgingThreads) {
+        return new HedgingClient(new LoadBalancerFeignClient(new LatencyTrackingClient(
+                new ConditionalRequestClient(new Client.Default(null, null), maximumSize), instanceLoads),
+                loadBalancerFactory, clientFactory), accountLatencyPolicy, hedgingThreads);
+    }
+}
@@ -0,0 +1,206 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * A local replica of the ids of all accounts, kept up to date by following the change feed of one account-service
+ * instance: after loading all accounts it long-polls {@code GET /accounts/changes} for creations and deletions. The
+ * instance is kept as long as it answers, since sequence numbers are only meaningful within its change log; a new
+ * instance, or one that no longer retains the changes asked for, means loading all accounts again. A reload from the
+ * instance that answered the last one is a conditional request, so an unchanged set of accounts costs a 304. A new
+ * instance is asked unconditionally, so the replica never rests on an instance's word about accounts it never sent.
+ * <p>
+ * {@link AccountClient} answers from the replica while it is fresh, i.e. synchronized within the last
+ * {@code todo.account-replica.max-staleness-millis}; {@link AccountFallbackFactory} answers from it regardless.
+ */
+@Component
+public class AccountReplica {
+
+    static final String CHANGE_LOG_HEADER = "X-Account-Change-Log";
+    static final String CHANGE_SEQUENCE_HEADER = "X-Account-Change-Sequence";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private LoadBalancerClient loadBalancerClient;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Value("${todo.account-replica.enabled:true}")
+    private boolean enabled;
+
+    @Value("${todo.account-replica.wait-millis:20000}")
+    private long waitMillis;
+
+    @Value("${todo.account-replica.retry-millis:1000}")
+    private long retryMillis;
+
+    @Value("${todo.account-replica.max-staleness-millis:30000}")
+    private long maxStalenessMillis;
+
+    private RestTemplate restTemplate;
+
+    private Thread follower;
+
+    private volatile boolean running;
+
+    private volatile AccountIdSet accountIds;
+
+    private volatile long synchronizedAtMillis;
+
+    // only used by the follower thread
+    private URI instance;
+    private UUID logId;
+    private long sequence;
+    private String etag;
+    private URI etagInstance;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        restTemplate = restTemplateBuilder.setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+                .setReadTimeout((int) (waitMillis + retryMillis)).build();
+
+        running = true;
+        follower = new Thread(this::follow, "account-replica");
+        follower.setDaemon(true);
+        follower.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (follower != null) {
+            follower.interrupt();
+        }
+    }
+
+    public boolean isLoaded() {
+        return accountIds != null;
+    }
+
+    /**
+     * Whether the replica was synchronized recently enough to answer instead of the account-service.
+     */
+    public boolean isFresh() {
+        return accountIds != null && ageMillis() <= maxStalenessMillis;
+    }
+
+    public boolean contains(final UUID accountId) {
+        final AccountIdSet replica = accountIds;
+        return replica != null && replica.contains(accountId);
+    }
+
+    public int size() {
+        final AccountIdSet replica = accountIds;
+        return replica != null ? replica.size() : 0;
+    }
+
+    public long ageMillis() {
+        return System.currentTimeMillis() - synchronizedAtMillis;
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                if (instance == null) {
+                    instance = chooseInstance();
+                    logId = null;
+                }
+                if (logId == null) {
+                    load();
+                } else {
+                    poll();
+                }
+            } catch (final RuntimeException e) {
+                logger.warn("follow(): synchronizing with {} failed: {}", instance, e.toString());
+                instance = null;
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (final InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private URI chooseInstance() {
+        final ServiceInstance serviceInstance = loadBalancerClient.choose("account-service");
+        if (serviceInstance == null) {
+            throw new IllegalStateException("No account-service instance available");
+        }
+        return serviceInstance.getUri();
+    }
+
+    private void load() {
+        final HttpHeaders headers = new HttpHeaders();
+        if (etag != null && instance.equals(etagInstance)) {
+            headers.setIfNoneMatch(etag);
+        }
+
+        final URI uri = UriComponentsBuilder.fromUri(instance).path("/accounts").build().toUri();
+        final ResponseEntity<AccountResources> response = restTemplate.exchange(uri, HttpMethod.GET,
+                new HttpEntity<>(headers), AccountResources.class);
+
+        if (response.getStatusCode() != HttpStatus.NOT_MODIFIED) {
+            accountIds = AccountIdSet.of(response.getBody().accountIds());
+            etag = response.getHeaders().getETag();
+            etagInstance = instance;
+        }
+        logId = UUID.fromString(response.getHeaders().getFirst(CHANGE_LOG_HEADER));
+        sequence = Long.parseLong(response.getHeaders().getFirst(CHANGE_SEQUENCE_HEADER));
+        synchronizedAtMillis = System.currentTimeMillis();
+        logger.info("load(): {} accounts as of change {} of {}", accountIds.size(), sequence, instance);
+    }
+
+    private void poll() {
+        final URI uri = UriComponentsBuilder.fromUri(instance).path("/accounts/changes")
+                .queryParam("since", sequence).queryParam("waitMillis", waitMillis).build().toUri();
+        final AccountChanges changes = restTemplate.getForObject(uri, AccountChanges.class);
+
+        if (changes.isResetRequired() || !logId.equals(changes.getLogId())) {
+            logger.info("poll(): changes after {} no longer available, reloading", sequence);
+            logId = null;
+            return;
+        }
+
+        if (!changes.getChanges().isEmpty()) {
+            // the latest change of an account wins
+            final Map<UUID, Boolean> latest = new LinkedHashMap<>();
+            changes.getChanges().forEach(change -> latest.put(change.getAccountId(), change.isCreated()));
+            accountIds = accountIds.with(latest);
+            logger.info("poll(): applied {} account changes up to {}", changes.getChanges().size(), changes.getSequence());
+        }
+        sequence = changes.getSequence();
+        synchronizedAtMillis = System.currentTimeMillis();
+    }
+}
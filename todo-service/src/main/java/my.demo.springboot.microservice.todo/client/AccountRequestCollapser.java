@@ -0,0 +1,144 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import my.demo.springboot.microservice.support.ExecutorConfiguration;
+
+/**
+ * Merges account lookups that arrive within a short window into a single {@link AccountProxy#findAllById(Set)}
+ * call. Lookups for the same account inside one window share a single result.
+ */
+@Component
+public class AccountRequestCollapser {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final AccountProxy accountProxy;
+
+    private final long windowMillis;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ExecutorService dispatcher;
+
+    private final Object lock = new Object();
+
+    private Map<UUID, CompletableFuture<Boolean>> pending = new HashMap<>();
+
+    private ScheduledFuture<?> pendingFlush;
+
+    public AccountRequestCollapser(final AccountProxy accountProxy, final long windowMillis, final int maxBatchSize,
+            final int dispatchers) {
+        this(accountProxy, windowMillis, maxBatchSize, dispatchers, "platform");
+    }
+
+    @Autowired
+    public AccountRequestCollapser(final AccountProxy accountProxy,
+            @Value("${todo.account-client.batch.window-millis:5}") final long windowMillis,
+            @Value("${todo.account-client.batch.max-size:100}") final int maxBatchSize,
+            @Value("${todo.account-client.batch.dispatchers:4}") final int dispatchers,
+            @Value("${executor.mode:platform}") final String executorMode) {
+        // on virtual threads a batch no longer waits for a free dispatcher while others block on the account-service
+        this(accountProxy, windowMillis, maxBatchSize,
+                Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("account-collapser")),
+                "virtual".equals(executorMode) ? ExecutorConfiguration.newVirtualThreadPerTaskExecutor()
+                        : Executors.newFixedThreadPool(dispatchers, DaemonThreads.named("account-batch")));
+    }
+
+    AccountRequestCollapser(final AccountProxy accountProxy, final long windowMillis, final int maxBatchSize,
+            final ScheduledExecutorService scheduler, final ExecutorService dispatcher) {
+        this.accountProxy = accountProxy;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+        this.dispatcher = dispatcher;
+    }
+
+    public CompletableFuture<Boolean> isAccountValid(final UUID accountId) {
+        final Map<UUID, CompletableFuture<Boolean>> full;
+        final CompletableFuture<Boolean> result;
+
+        synchronized (lock) {
+            final CompletableFuture<Boolean> inFlight = pending.get(accountId);
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            result = new CompletableFuture<>();
+            pending.put(accountId, result);
+
+            if (pending.size() == 1) {
+                final Map<UUID, CompletableFuture<Boolean>> batch = pending;
+                pendingFlush = scheduler.schedule(() -> flush(batch), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            if (pending.size() < maxBatchSize) {
+                return result;
+            }
+
+            full = pending;
+            pending = new HashMap<>();
+            pendingFlush.cancel(false);
+        }
+
+        dispatch(full);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private void flush(final Map<UUID, CompletableFuture<Boolean>> batch) {
+        synchronized (lock) {
+            // a batch that filled up was dispatched already, its timer must not cut the window of the next one short
+            if (pending != batch) {
+                return;
+            }
+            pending = new HashMap<>();
+        }
+
+        dispatch(batch);
+    }
+
+    private void dispatch(final Map<UUID, CompletableFuture<Boolean>> batch) {
+        dispatcher.execute(() -> {
+            try {
+                logger.debug("findAllById({} ids)", batch.size());
+
+                final ResponseEntity<AccountResources> response = accountProxy.findAllById(batch.keySet());
+
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    throw new IllegalStateException(String.format("Batch lookup failed with status %s", response.getStatusCode()));
+                }
+
+                final Set<UUID> found = response.getBody() != null ? response.getBody().accountIds() : Collections.emptySet();
+                batch.forEach((accountId, result) -> result.complete(found.contains(accountId)));
+            } catch (final RuntimeException e) {
+                batch.values().forEach(result -> result.completeExceptionally(e));
+            }
+        });
+    }
+}
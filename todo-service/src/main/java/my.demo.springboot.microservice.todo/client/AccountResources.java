@@ -0,0 +1,40 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class AccountResources {
+
+    @JsonProperty("_embedded")
+    private Embedded embedded;
+
+    public Set<UUID> accountIds() {
+        if (embedded == null) {
+            return new HashSet<>();
+        }
+        return embedded.getAccountResourceList().stream().map(r -> r.getAccount().getAccountId()).collect(Collectors.toSet());
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Embedded {
+        private List<AccountResource> accountResourceList = new ArrayList<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class AccountResource {
+        private Account account;
+    }
+}
@@ -0,0 +1,19 @@
+package my.demo.springboot.microservice.todo.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import com.netflix.loadbalancer.IRule;
+
+/**
+ * Ribbon configuration of the account-service only, hence no {@code @Configuration}: replaces the round robin of the
+ * default rule by {@link LatencyAwareRule}, unless {@code todo.account-client.load-balancing.latency-aware=false}.
+ */
+class AccountRibbonConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "todo.account-client.load-balancing.latency-aware", matchIfMissing = true)
+    IRule ribbonRule(final InstanceLoads instanceLoads) {
+        return new LatencyAwareRule(instanceLoads);
+    }
+}
@@ -0,0 +1,67 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates many accounts at once through {@link AccountClient}, with at most {@code parallelism} lookups in flight
+ * across all callers. Concurrent lookups are what the request collapser merges into batch calls.
+ */
+@Component
+public class AccountValidator {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final AccountClient accountClient;
+
+    private final ExecutorService executor;
+
+    public AccountValidator(final AccountClient accountClient,
+            @Value("${todo.account-client.validation.parallelism:16}") final int parallelism) {
+        this.accountClient = accountClient;
+        this.executor = Executors.newFixedThreadPool(parallelism, DaemonThreads.named("account-validation"));
+    }
+
+    /**
+     * Returns the validity of each account; accounts whose lookup failed are missing from the result.
+     */
+    public Map<UUID, Boolean> validateAll(final Collection<UUID> accountIds) {
+        final Map<UUID, Future<Boolean>> lookups = new LinkedHashMap<>();
+        accountIds.forEach(accountId -> lookups.put(accountId, executor.submit(() -> accountClient.isAccountValid(accountId))));
+
+        final Map<UUID, Boolean> result = new HashMap<>();
+        try {
+            for (final Map.Entry<UUID, Future<Boolean>> lookup : lookups.entrySet()) {
+                try {
+                    result.put(lookup.getKey(), lookup.getValue().get());
+                } catch (final ExecutionException e) {
+                    logger.warn("validateAll(): lookup of {} failed: {}", lookup.getKey(), e.getCause().toString());
+                }
+            }
+        } catch (final InterruptedException e) {
+            lookups.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,73 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Remembers account-service answers for {@link AccountClient}. Positive and negative answers expire
+ * independently, the number of entries is bounded (W-TinyLFU eviction) and hit/miss/eviction counts are
+ * published as {@code cache.*} metrics tagged with {@code cache=accountValidity}.
+ */
+@Component
+public class AccountValidityCache {
+
+    private final Cache<UUID, Boolean> cache;
+
+    public AccountValidityCache(@Value("${todo.account-cache.ttl-seconds:60}") final long ttlSeconds,
+            @Value("${todo.account-cache.negative-ttl-seconds:5}") final long negativeTtlSeconds,
+            @Value("${todo.account-cache.maximum-size:10000}") final long maximumSize,
+            final MeterRegistry meterRegistry) {
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ValidityExpiry(TimeUnit.SECONDS.toNanos(ttlSeconds), TimeUnit.SECONDS.toNanos(negativeTtlSeconds)))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "accountValidity");
+    }
+
+    public Boolean getIfPresent(final UUID accountId) {
+        return cache.getIfPresent(accountId);
+    }
+
+    public void put(final UUID accountId, final boolean valid) {
+        cache.put(accountId, valid);
+    }
+
+    private static class ValidityExpiry implements Expiry<UUID, Boolean> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private ValidityExpiry(final long ttlNanos, final long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(final UUID accountId, final Boolean valid, final long currentTime) {
+            return valid ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(final UUID accountId, final Boolean valid, final long currentTime, final long currentDuration) {
+            return expireAfterCreate(accountId, valid, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final UUID accountId, final Boolean valid, final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
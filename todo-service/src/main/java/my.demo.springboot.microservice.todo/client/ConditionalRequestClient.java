@@ -0,0 +1,106 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+/**
+ * Makes GET requests conditional: bodies that came with an ETag are kept per URL, the next request for that URL sends
+ * the tag in {@code If-None-Match}, and a 304 answer is replaced by the kept body. Callers therefore never see a 304,
+ * they just get the body without it crossing the network again.
+ * <p>
+ * The URLs seen here already name the chosen instance, so every instance revalidates its own tags.
+ */
+class ConditionalRequestClient implements Client {
+
+    private static final int NOT_MODIFIED = 304;
+
+    private final Client delegate;
+
+    private final Cache<String, CachedResponse> responses;
+
+    ConditionalRequestClient(final Client delegate, final long maximumSize) {
+        this.delegate = delegate;
+        this.responses = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        if (!"GET".equals(request.method())) {
+            return delegate.execute(request, options);
+        }
+
+        final CachedResponse cached = responses.getIfPresent(request.url());
+        final Response response = delegate.execute(cached == null ? request : withIfNoneMatch(request, cached.etag),
+                options);
+
+        if (response.status() == NOT_MODIFIED && cached != null) {
+            response.close();
+            return cached.toResponse();
+        }
+
+        final String etag = header(response, "ETag");
+        if (response.status() != 200 || etag == null || response.body() == null) {
+            responses.invalidate(request.url());
+            return response;
+        }
+
+        final byte[] body;
+        try {
+            body = Util.toByteArray(response.body().asInputStream());
+        } finally {
+            response.close();
+        }
+        final CachedResponse fresh = new CachedResponse(etag, response.status(), response.reason(),
+                response.headers(), body);
+        responses.put(request.url(), fresh);
+        return fresh.toResponse();
+    }
+
+    private static Request withIfNoneMatch(final Request request, final String etag) {
+        final Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put("If-None-Match", Collections.singletonList(etag));
+        return Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+    }
+
+    private static String header(final Response response, final String name) {
+        for (final Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().iterator().next();
+            }
+        }
+        return null;
+    }
+
+    private static final class CachedResponse {
+
+        private final String etag;
+        private final int status;
+        private final String reason;
+        private final Map<String, Collection<String>> headers;
+        private final byte[] body;
+
+        private CachedResponse(final String etag, final int status, final String reason,
+                final Map<String, Collection<String>> headers, final byte[] body) {
+            this.etag = etag;
+            this.status = status;
+            this.reason = reason;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        private Response toResponse() {
+            return Response.builder().status(status).reason(reason).headers(headers).body(body).build();
+        }
+    }
+}
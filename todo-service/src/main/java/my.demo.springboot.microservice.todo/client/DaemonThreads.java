@@ -0,0 +1,22 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads of the account clients' pools; as daemons they never keep the service from shutting down.
+ */
+final class DaemonThreads {
+
+    private DaemonThreads() {
+    }
+
+    static ThreadFactory named(final String prefix) {
+        final AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
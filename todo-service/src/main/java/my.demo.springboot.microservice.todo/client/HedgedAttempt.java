@@ -0,0 +1,51 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.io.IOException;
+
+/**
+ * An attempt of a hedged account-service call, known to the thread running it: {@link LatencyTrackingClient} notes
+ * the instance the attempt went to, and {@link LatencyAwareRule} keeps the hedge away from the instance of the first
+ * attempt.
+ */
+final class HedgedAttempt {
+
+    private static final ThreadLocal<HedgedAttempt> CURRENT = new ThreadLocal<>();
+
+    private final String avoidedHostPort;
+
+    private volatile String hostPort;
+
+    HedgedAttempt(final String avoidedHostPort) {
+        this.avoidedHostPort = avoidedHostPort;
+    }
+
+    static HedgedAttempt current() {
+        return CURRENT.get();
+    }
+
+    <T> T run(final Call<T> call) throws IOException {
+        CURRENT.set(this);
+        try {
+            return call.call();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    String getAvoidedHostPort() {
+        return avoidedHostPort;
+    }
+
+    String getHostPort() {
+        return hostPort;
+    }
+
+    void sentTo(final String hostPort) {
+        this.hostPort = hostPort;
+    }
+
+    interface Call<T> {
+
+        T call() throws IOException;
+    }
+}
@@ -0,0 +1,206 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Applies the {@link AccountLatencyPolicy} to the calls of the load balancing client below: sets the adaptive read
+ * timeout, and sends a read that is still unanswered after the hedge delay to a second instance, answering with
+ * whichever attempt answers first. The slower answer is closed once it arrives. Server errors only count as an answer
+ * if the other attempt fails as well. Unhedged calls run on the calling thread, hedged ones on a pool of at most
+ * {@code todo.account-client.hedging.max-threads}; once that is busy, calls go unhedged.
+ */
+class HedgingClient implements Client {
+
+    // reads sent as POST since their ids don't fit a URL
+    private static final String BATCH_GET = ":batchGet";
+
+    private static final Pattern ID_SEGMENT = Pattern
+            .compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Client delegate;
+
+    private final AccountLatencyPolicy policy;
+
+    private final ExecutorService executor;
+
+    HedgingClient(final Client delegate, final AccountLatencyPolicy policy, final int maxThreads) {
+        this.delegate = delegate;
+        this.policy = policy;
+        // rejects instead of queueing, a queued attempt would only add to the latency it is meant to cut
+        executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                DaemonThreads.named("account-hedging"));
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final String route = route(request);
+        final Request.Options attemptOptions = policy.options(route, options);
+        final long hedgeDelayNanos = isRead(request) ? policy.hedgeDelayNanos(route) : -1;
+        if (hedgeDelayNanos < 0) {
+            return timed(request, route, attemptOptions);
+        }
+
+        final HedgedAttempt first = new HedgedAttempt(null);
+        final CompletableFuture<Response> firstResponse;
+        try {
+            firstResponse = attempt(first, request, route, attemptOptions);
+        } catch (final RejectedExecutionException e) {
+            return timed(request, route, attemptOptions);
+        }
+        try {
+            final Response answered = await(firstResponse, hedgeDelayNanos);
+            if (answered != null) {
+                return answered;
+            }
+            if (!policy.tryHedge()) {
+                return await(firstResponse, Long.MAX_VALUE);
+            }
+
+            logger.debug("execute(): hedging {} {} after {} ms", request.method(), request.url(),
+                    TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos));
+            final CompletableFuture<Response> hedgeResponse;
+            try {
+                hedgeResponse = attempt(new HedgedAttempt(first.getHostPort()), request, route, attemptOptions);
+            } catch (final RejectedExecutionException e) {
+                return await(firstResponse, Long.MAX_VALUE);
+            }
+            return await(firstAnswer(firstResponse, hedgeResponse), Long.MAX_VALUE);
+        } catch (final ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The method and path of a request with the ids left out, e.g. {@code GET /accounts/{id}}, so the latencies of
+     * {@code findById} and {@code batchGet} are kept apart.
+     */
+    static String route(final Request request) {
+        return request.method() + " " + ID_SEGMENT.matcher(URI.create(request.url()).getPath()).replaceAll("/{id}");
+    }
+
+    private Response timed(final Request request, final String route, final Request.Options options)
+            throws IOException {
+        final long start = System.nanoTime();
+        final Response response = delegate.execute(request, options);
+        policy.record(route, System.nanoTime() - start);
+        return response;
+    }
+
+    private CompletableFuture<Response> attempt(final HedgedAttempt attempt, final Request request,
+            final String route, final Request.Options options) {
+        final CompletableFuture<Response> response = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                response.complete(attempt.run(() -> timed(request, route, options)));
+            } catch (final Throwable e) {
+                response.completeExceptionally(e);
+            }
+        });
+        return response;
+    }
+
+    private CompletableFuture<Response> firstAnswer(final CompletableFuture<Response> first,
+            final CompletableFuture<Response> hedge) {
+        final CompletableFuture<Response> answer = new CompletableFuture<>();
+        final AtomicInteger failed = new AtomicInteger();
+        first.whenComplete((response, failure) -> answer(answer, failed, response, failure, false));
+        hedge.whenComplete((response, failure) -> answer(answer, failed, response, failure, true));
+        return answer;
+    }
+
+    private void answer(final CompletableFuture<Response> answer, final AtomicInteger failed, final Response response,
+            final Throwable failure, final boolean hedge) {
+        if (response != null && response.status() < 500) {
+            // a won hedge is counted before the caller gets the answer
+            synchronized (answer) {
+                if (!answer.isDone()) {
+                    if (hedge) {
+                        policy.hedgeWon();
+                    }
+                    answer.complete(response);
+                    return;
+                }
+            }
+            close(response);
+        } else if (failed.incrementAndGet() == 2) {
+            // neither answered, hand on the last outcome the way an unhedged call would
+            if (response != null) {
+                answer.complete(response);
+            } else {
+                answer.completeExceptionally(failure);
+            }
+        } else if (response != null) {
+            close(response);
+        }
+    }
+
+    // null if there is no answer in time; an interrupt, e.g. by the Hystrix timeout, leaves the attempts running and
+    // their answers are closed when they arrive
+    private Response await(final CompletableFuture<Response> response, final long timeoutNanos)
+            throws IOException, ExecutionException {
+        try {
+            return response.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (final TimeoutException e) {
+            return null;
+        } catch (final InterruptedException e) {
+            response.thenAccept(HedgingClient::close);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the account-service");
+        }
+    }
+
+    private static boolean isRead(final Request request) {
+        return "GET".equals(request.method()) || request.url().endsWith(BATCH_GET);
+    }
+
+    private static IOException rethrow(final Throwable failure) {
+        if (failure instanceof IOException) {
+            return (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new IOException(failure);
+    }
+
+    private static void close(final Response response) {
+        if (response.body() != null) {
+            try {
+                response.body().close();
+            } catch (final IOException e) {
+                // nothing left to do with it
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.netflix.ribbon.RibbonClient;
+import org.springframework.stereotype.Component;
+
+/**
+ * The load of every account-service instance as seen by {@link LatencyTrackingClient}: the requests outstanding and
+ * the peak exponentially weighted moving average of the latency, which jumps up to a slower response at once and
+ * decays with {@code todo.account-client.load-balancing.decay-millis} otherwise. {@link LatencyAwareRule} picks
+ * instances by it. Instances are keyed by {@code host:port}.
+ */
+@Component
+@RibbonClient(name = "account-service", configuration = AccountRibbonConfiguration.class)
+public class InstanceLoads {
+
+    // a failed request counts as at least this slow, or failing fast would attract even more requests
+    static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // makes an instance that has not answered yet but has requests outstanding the last choice
+    private static final double UNMEASURED_PENALTY = Long.MAX_VALUE >> 16;
+
+    private final long decayNanos;
+
+    private final ConcurrentMap<String, InstanceLoad> loads = new ConcurrentHashMap<>();
+
+    public InstanceLoads(@Value("${todo.account-client.load-balancing.decay-millis:10000}") final long decayMillis) {
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(decayMillis, 1));
+    }
+
+    InstanceLoad get(final String hostPort) {
+        return loads.computeIfAbsent(hostPort, key -> new InstanceLoad());
+    }
+
+    /**
+     * The cost of sending one more request to the instance: its average latency times the requests it would then
+     * have outstanding. Instances never seen cost nothing, so they are tried.
+     */
+    double cost(final String hostPort) {
+        final InstanceLoad load = loads.get(hostPort);
+        return load != null ? load.cost() : 0;
+    }
+
+    final class InstanceLoad {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private long ewmaNanos;
+
+        private long updatedNanos = System.nanoTime();
+
+        long start() {
+            outstanding.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        void end(final long startNanos, final boolean failed) {
+            outstanding.decrementAndGet();
+            final long now = System.nanoTime();
+            final long latencyNanos = failed ? Math.max(now - startNanos, FAILURE_PENALTY_NANOS) : now - startNanos;
+            synchronized (this) {
+                final double weight = Math.exp(-(double) (now - updatedNanos) / decayNanos);
+                ewmaNanos = latencyNanos > ewmaNanos ? latencyNanos
+                        : (long) (ewmaNanos * weight + latencyNanos * (1 - weight));
+                updatedNanos = now;
+            }
+        }
+
+        int outstanding() {
+            return outstanding.get();
+        }
+
+        synchronized long ewmaNanos() {
+            return ewmaNanos;
+        }
+
+        private double cost() {
+            final int pending = outstanding.get();
+            final long ewma = ewmaNanos();
+            if (ewma == 0) {
+                return pending == 0 ? 0 : UNMEASURED_PENALTY + pending;
+            }
+            return (double) ewma * (pending + 1);
+        }
+    }
+}
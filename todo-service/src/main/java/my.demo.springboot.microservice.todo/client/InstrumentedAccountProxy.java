@@ -0,0 +1,58 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every {@link AccountProxy} call as {@code todo.account-proxy}, tagged by method and outcome: {@code success}
+ * for answers of the account-service, {@code fallback} or {@code circuit-open} for answers of the
+ * {@link AccountFallbackFactory} and {@code error} for calls that threw.
+ */
+@Primary
+@Component
+public class InstrumentedAccountProxy implements AccountProxy {
+
+    static final String TIMER = "todo.account-proxy";
+
+    private final AccountProxy delegate;
+
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedAccountProxy(@Qualifier(AccountProxy.FEIGN_CLIENT) final AccountProxy delegate,
+            final MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ResponseEntity<Account> findById(final UUID id) {
+        return record("findById", () -> delegate.findById(id));
+    }
+
+    @Override
+    public ResponseEntity<AccountResources> findAllById(final Set<UUID> ids) {
+        return record("findAllById", () -> delegate.findAllById(ids));
+    }
+
+    private <T> ResponseEntity<T> record(final String method, final Supplier<ResponseEntity<T>> call) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            final ResponseEntity<T> response = call.get();
+            final String fallback = response.getHeaders().getFirst(AccountFallbackFactory.OUTCOME_HEADER);
+            outcome = fallback != null ? fallback : "success";
+            return response;
+        } finally {
+            sample.stop(meterRegistry.timer(TIMER, "method", method, "outcome", outcome));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.Server;
+
+/**
+ * Picks two reachable instances at random and takes the one with the lower {@link InstanceLoads#cost(String) cost}
+ * (power of two choices). A slow instance thus gets fewer requests the slower it is, while the random pair keeps
+ * every instance measured and avoids all clients piling onto the one that looks best at the moment. The hedge of a
+ * {@link HedgedAttempt hedged call} avoids the instance of the first attempt.
+ */
+class LatencyAwareRule extends AbstractLoadBalancerRule {
+
+    private final InstanceLoads instanceLoads;
+
+    LatencyAwareRule(final InstanceLoads instanceLoads) {
+        this.instanceLoads = instanceLoads;
+    }
+
+    @Override
+    public Server choose(final Object key) {
+        final ILoadBalancer loadBalancer = getLoadBalancer();
+        if (loadBalancer == null) {
+            return null;
+        }
+
+        final List<Server> servers = withoutAvoided(loadBalancer.getReachableServers());
+        if (servers.isEmpty()) {
+            return null;
+        }
+        if (servers.size() == 1) {
+            return servers.get(0);
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(servers.size());
+        int second = random.nextInt(servers.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        final Server one = servers.get(first);
+        final Server other = servers.get(second);
+        return instanceLoads.cost(one.getHostPort()) <= instanceLoads.cost(other.getHostPort()) ? one : other;
+    }
+
+    private static List<Server> withoutAvoided(final List<Server> servers) {
+        final HedgedAttempt attempt = HedgedAttempt.current();
+        if (attempt == null || attempt.getAvoidedHostPort() == null || servers.size() < 2) {
+            return servers;
+        }
+        return servers.stream().filter(server -> !server.getHostPort().equals(attempt.getAvoidedHostPort()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void initWithNiwsConfig(final IClientConfig clientConfig) {
+        // nothing to configure
+    }
+}
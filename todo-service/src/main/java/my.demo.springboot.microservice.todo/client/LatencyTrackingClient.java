@@ -0,0 +1,55 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Records the latency and the outstanding requests of the instance a request was sent to in {@link InstanceLoads}.
+ * Sits below the Ribbon load balancing, where the URL already names the chosen instance, so choosing it and measuring
+ * it is a single lookup. Server errors and I/O errors count as failures. Also tells a {@link HedgedAttempt} where it
+ * went.
+ */
+class LatencyTrackingClient implements Client {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Client delegate;
+
+    private final InstanceLoads instanceLoads;
+
+    LatencyTrackingClient(final Client delegate, final InstanceLoads instanceLoads) {
+        this.delegate = delegate;
+        this.instanceLoads = instanceLoads;
+    }
+
+    @Override
+    public Response execute(final Request request, final Request.Options options) throws IOException {
+        final URI uri = URI.create(request.url());
+        final String hostPort = uri.getHost() + ":" + uri.getPort();
+        final InstanceLoads.InstanceLoad load = instanceLoads.get(hostPort);
+        final HedgedAttempt attempt = HedgedAttempt.current();
+        if (attempt != null) {
+            attempt.sentTo(hostPort);
+        }
+
+        final long start = load.start();
+        boolean failed = true;
+        try {
+            final Response response = delegate.execute(request, options);
+            failed = response.status() >= 500;
+            return response;
+        } finally {
+            load.end(start, failed);
+            logger.debug("execute(): {} {} on {} took {} ms", request.method(), uri.getPath(), hostPort,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+}
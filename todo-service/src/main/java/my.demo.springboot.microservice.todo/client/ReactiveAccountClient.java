@@ -0,0 +1,88 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking counterpart of {@link AccountClient}: asks account-service through a load-balanced {@link WebClient}
+ * with a timeout per attempt and a bounded number of retries, and degrades like the Feign fallback once those are
+ * used up.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAccountClient {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final WebClient webClient;
+
+    @Autowired
+    private AccountValidityCache accountValidityCache;
+
+    @Autowired
+    private AccountFallbackFactory accountFallbackFactory;
+
+    @Autowired
+    private AccountReplica accountReplica;
+
+    @Value("${todo.account-client.reactive.timeout-millis:1000}")
+    private long timeoutMillis;
+
+    @Value("${todo.account-client.reactive.retries:2}")
+    private int retries;
+
+    public ReactiveAccountClient(@LoadBalanced final WebClient.Builder webClientBuilder) {
+        webClient = webClientBuilder.baseUrl("http://account-service").build();
+    }
+
+    public Mono<Boolean> isAccountValid(final UUID accountId) {
+        logger.debug("isAccountValid({})", accountId);
+
+        if (accountReplica.isFresh()) {
+            return Mono.just(accountReplica.contains(accountId));
+        }
+
+        final Boolean cached = accountValidityCache.getIfPresent(accountId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return webClient.get().uri("/accounts/{id}", accountId).accept(MediaTypes.HAL_JSON)
+                .exchange()
+                .flatMap(response -> {
+                    if (response.statusCode().is2xxSuccessful() || response.statusCode() == HttpStatus.NOT_FOUND) {
+                        final boolean valid = response.statusCode().is2xxSuccessful();
+                        return response.bodyToMono(Void.class).then(Mono.just(valid));
+                    }
+                    return response.bodyToMono(Void.class).then(Mono.<Boolean>error(new IllegalStateException(
+                            String.format("account-service answered %s", response.statusCode()))));
+                })
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .retry(retries)
+                .doOnNext(valid -> accountValidityCache.put(accountId, valid))
+                .onErrorResume(error -> fallback(accountId, error));
+    }
+
+    private Mono<Boolean> fallback(final UUID accountId, final Throwable error) {
+        logger.warn("isAccountValid(): lookup of {} failed: {}", accountId, error.toString());
+
+        // the fallback consults the load balancer, which may block on its first use
+        return Mono.fromCallable(() -> accountFallbackFactory.create(error).findById(accountId)
+                .getStatusCode().is2xxSuccessful())
+                .subscribeOn(Schedulers.elastic());
+    }
+}
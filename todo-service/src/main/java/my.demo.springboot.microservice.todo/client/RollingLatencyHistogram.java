@@ -0,0 +1,108 @@
+package my.demo.springboot.microservice.todo.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of roughly the last window, kept as counts in buckets about 10% wide from a microsecond to a few minutes
+ * rather than as samples. The window is split into slices, the oldest of which is dropped as time moves on, so a
+ * percentile follows a change of the latencies within a slice.
+ */
+class RollingLatencyHistogram {
+
+    private static final double BUCKET_GROWTH = 1.1;
+    private static final double LOG_BUCKET_GROWTH = Math.log(BUCKET_GROWTH);
+    private static final int BUCKETS = 220;
+    private static final int SLICES = 6;
+
+    private final long sliceNanos;
+
+    private final AtomicLongArray[] slices = new AtomicLongArray[SLICES];
+
+    // the number of the slice period each slice currently counts for
+    private final AtomicLongArray slicePeriods = new AtomicLongArray(SLICES);
+
+    RollingLatencyHistogram(final long windowMillis) {
+        this.sliceNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(windowMillis) / SLICES, 1);
+        for (int i = 0; i < SLICES; i++) {
+            slices[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    void record(final long latencyNanos) {
+        slice(System.nanoTime() / sliceNanos).incrementAndGet(bucket(latencyNanos));
+    }
+
+    long count() {
+        long count = 0;
+        for (final long bucketCount : counts()) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * The latency below which the given fraction of the window's latencies lie, rounded up to its bucket; 0 if
+     * nothing was recorded.
+     */
+    long percentileNanos(final double percentile) {
+        final long[] counts = counts();
+        long total = 0;
+        for (final long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return upperBoundNanos(bucket);
+            }
+        }
+        return upperBoundNanos(BUCKETS - 1);
+    }
+
+    private long[] counts() {
+        final long period = System.nanoTime() / sliceNanos;
+        final long[] counts = new long[BUCKETS];
+        for (int i = 0; i < SLICES; i++) {
+            if (period - slicePeriods.get(i) >= SLICES) {
+                continue;
+            }
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                counts[bucket] += slices[i].get(bucket);
+            }
+        }
+        return counts;
+    }
+
+    private AtomicLongArray slice(final long period) {
+        final int index = (int) Math.floorMod(period, (long) SLICES);
+        final AtomicLongArray slice = slices[index];
+        if (slicePeriods.get(index) != period) {
+            // a latency recorded while the slice is cleared may get lost, which a percentile can do without
+            synchronized (slice) {
+                if (slicePeriods.get(index) != period) {
+                    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                        slice.set(bucket, 0);
+                    }
+                    slicePeriods.set(index, period);
+                }
+            }
+        }
+        return slice;
+    }
+
+    private static int bucket(final long latencyNanos) {
+        final double micros = Math.max(latencyNanos / 1000.0, 1);
+        return Math.min((int) (Math.log(micros) / LOG_BUCKET_GROWTH), BUCKETS - 1);
+    }
+
+    private static long upperBoundNanos(final int bucket) {
+        return (long) (Math.pow(BUCKET_GROWTH, bucket + 1) * 1000);
+    }
+}
@@ -0,0 +1,83 @@
+package my.demo.springboot.microservice.todo.domain;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import my.demo.springboot.microservice.todo.TodoConfiguration;
+import my.demo.springboot.microservice.todo.client.ReactiveAccountClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTodoServiceImpl implements ReactiveTodoService {
+
+    @Autowired
+    private ReactiveAccountClient accountClient;
+
+    @Autowired
+    TodoConfiguration todoConfiguration;
+
+    @Value("${todo.account-client.validation.parallelism:16}")
+    private int validationParallelism;
+
+    public Mono<Todo> findById(UUID todoId) {
+        return Mono.fromSupplier(() -> todoConfiguration.todoStore().findById(todoId))
+                .switchIfEmpty(Mono.defer(() -> Mono.error(
+                        new IllegalArgumentException(String.format("Todo with id %s not found", todoId)))));
+    }
+
+    public Flux<Todo> findAll() {
+        return Flux.defer(() -> Flux.fromIterable(todoConfiguration.todoStore().findAll()));
+    }
+
+    public Flux<Todo> findAll(UUID after, int limit) {
+        return Flux.defer(() -> Flux.fromIterable(todoConfiguration.todoStore().findAll(after, limit)));
+    }
+
+    public Flux<Todo> findAllByAccount(UUID accountId) {
+        return accountClient.isAccountValid(accountId).flatMapMany(valid -> {
+            if (!valid) {
+                return Flux.<Todo>error(new IllegalArgumentException(String.format("Account with id %s not found", accountId)));
+            }
+            return Flux.fromIterable(todoConfiguration.todoStore().findAllByAccount(accountId));
+        });
+    }
+
+    public Mono<Todo> addTodo(final Todo todo) {
+        Todo created = new Todo(UUID.randomUUID(), todo.getAccountId(), todo.getEmail(), todo.getDescription(), todo.isCompleted());
+
+        return accountClient.isAccountValid(created.getAccountId()).flatMap(valid -> {
+            if (!valid) {
+                return Mono.<Todo>error(new IllegalArgumentException(String.format("Account with id %s not found", created.getAccountId())));
+            }
+            // a persistent store waits for the journal before it returns
+            return Mono.fromCallable(() -> todoConfiguration.todoStore().addIfAbsent(created)).subscribeOn(Schedulers.elastic());
+        }).flatMap(added -> added ? Mono.just(created)
+                : Mono.<Todo>error(new IllegalArgumentException("Todo " + created + " already exists")));
+    }
+
+    public Mono<List<TodoResult>> addTodos(final List<Todo> todos) {
+        final Set<UUID> accountIds = todos.stream().map(Todo::getAccountId).filter(Objects::nonNull).collect(Collectors.toSet());
+
+        // failed lookups are left out, TodoBatch reports their todos as not validated
+        return Flux.fromIterable(accountIds)
+                .flatMap(accountId -> accountClient.isAccountValid(accountId)
+                        .map(valid -> Tuples.of(accountId, valid))
+                        .onErrorResume(error -> Mono.empty()), validationParallelism)
+                .collectMap(Tuple2::getT1, Tuple2::getT2)
+                .flatMap(validAccounts -> Mono.fromCallable(() -> TodoBatch.addAll(todoConfiguration.todoStore(), todos, validAccounts))
+                        .subscribeOn(Schedulers.elastic()));
+    }
+}
@@ -0,0 +1,58 @@
+package my.demo.springboot.microservice.todo.domain;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import my.demo.springboot.microservice.todo.store.TodoStore;
+
+/**
+ * Adds a batch of todos whose accounts have already been validated: rejects todos of invalid accounts and duplicates,
+ * both of stored todos and within the batch, and stores the rest in one pass that checks for duplicates atomically.
+ */
+final class TodoBatch {
+
+    private TodoBatch() {
+    }
+
+    static List<TodoResult> addAll(final TodoStore todoStore, final List<Todo> todos,
+            final Map<UUID, Boolean> validAccounts) {
+        final List<TodoResult> results = new ArrayList<>(todos.size());
+        final List<Todo> created = new ArrayList<>(todos.size());
+
+        for (final Todo todo : todos) {
+            final UUID accountId = todo.getAccountId();
+            if (accountId == null) {
+                results.add(TodoResult.failure(todo, "Todo has no account id"));
+                continue;
+            }
+
+            final Boolean valid = validAccounts.get(accountId);
+            if (valid == null) {
+                results.add(TodoResult.failure(todo, String.format("Account with id %s could not be validated", accountId)));
+            } else if (!valid) {
+                results.add(TodoResult.failure(todo, String.format("Account with id %s not found", accountId)));
+            } else {
+                created.add(new Todo(UUID.randomUUID(), accountId, todo.getEmail(), todo.getDescription(), todo.isCompleted()));
+                // filled in once the store has decided
+                results.add(null);
+            }
+        }
+
+        final Set<UUID> added = todoStore.addAllIfAbsent(created).stream().map(Todo::getTodoId)
+                .collect(Collectors.toSet());
+        final Iterator<Todo> createdTodos = created.iterator();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                final Todo todo = createdTodos.next();
+                results.set(i, added.contains(todo.getTodoId()) ? TodoResult.success(todo)
+                        : TodoResult.failure(todos.get(i), "Todo " + todo + " already exists"));
+            }
+        }
+        return results;
+    }
+}
@@ -3,56 +3,220 @@ package my.demo.springboot.microservice.todo.domain;
 import my.demo.springboot.microservice.todo.TodoConfiguration;
 import my.demo.springboot.microservice.todo.client.AccountClient;
 import my.demo.springboot.microservice.todo.client.AccountProxy;
+import my.demo.springboot.microservice.todo.client.AccountValidator;
+import my.demo.springboot.microservice.todo.exception.PreconditionFailedException;
+import my.demo.springboot.microservice.todo.store.TodoStore;
+import my.demo.springboot.microservice.todo.store.TodoStore.Replacement;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
+import io.micrometer.core.annotation.Timed;
+
 import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
 public class TodoServiceImpl implements TodoService {
 
+    static final String TIMER = "todo.service";
+
+    private static final long ANY_VERSION = -1;
+
     @Autowired
     private AccountClient accountClient;
 
     @Autowired
     AccountProxy accountProxy;
 
+    @Autowired
+    private AccountValidator accountValidator;
+
     @Autowired
     TodoConfiguration todoConfiguration;
 
+    // store versions restart with the process, the epoch keeps tags of earlier runs and other instances from matching
+    private final String epoch = Long.toHexString(new Random().nextLong());
+
+    @Timed(TIMER)
     public Todo findById(UUID todoId) {
-        return todoConfiguration.todoRepository().entrySet().stream()
-                .flatMap(l -> l.getValue().stream().filter(t->t.getTodoId().equals(todoId))).collect(Collectors.toList()).get(0);
+        final Todo todo = todoConfiguration.todoStore().findById(todoId);
+
+        if (todo == null) {
+            throw new IllegalArgumentException(String.format("Todo with id %s not found", todoId));
+        }
+        return todo;
     }
 
+    @Timed(TIMER)
     public List<Todo> findAll() {
-        return todoConfiguration.todoRepository().entrySet().stream().flatMap(l -> l.getValue().stream()).collect(Collectors.toList());
+        return todoConfiguration.todoStore().findAll();
+    }
+
+    @Timed(TIMER)
+    public List<Todo> findAll(UUID after, int limit) {
+        return todoConfiguration.todoStore().findAll(after, limit);
     }
 
+    @Timed(TIMER)
     public List<Todo> findAllByAccount(UUID accountId) {
-        if (!accountClient.isAccountValid(accountId)) {
-            throw new IllegalArgumentException(String.format("Account with id %s does not exist!", accountId));
-        }
-        return todoConfiguration.todoRepository().get(accountId);
+        requireValidAccount(accountId);
+        return todoConfiguration.todoStore().findAllByAccount(accountId);
+    }
+
+    /**
+     * Identifies the current state of all todos. Taken before the todos are read, it never stands for newer ones
+     * than those it is sent with.
+     */
+    public String todosETag() {
+        return eTag(todoConfiguration.todoStore().version());
+    }
+
+    /**
+     * Identifies the current state of the todos of an account, see {@link #todosETag()}. The account is not looked
+     * up: a client revalidating the todos it holds gets its 304 without an account check, while
+     * {@link #findAllByAccount(UUID)} checks the account once for a full answer. {@code null} while the store never
+     * held a todo of the account, as an unknown account must not be tagged like one without todos.
+     */
+    public String accountTodosETag(final UUID accountId) {
+        final long version = todoConfiguration.todoStore().accountVersion(accountId);
+        return version == 0 ? null : eTag(version);
+    }
+
+    /**
+     * Identifies the current state of a todo, see {@link #todosETag()}; conditional updates expect one of these.
+     */
+    public String todoETag(final UUID todoId) {
+        return eTag(currentVersion(todoId));
+    }
+
+    /**
+     * The ETag to answer an update with: that of the todo as long as it is still the one written, {@code null} once it
+     * changed again, so a client never gets a tag for a state it wasn't sent.
+     */
+    public String todoETag(final UUID todoId, final Todo written) {
+        final long version = todoConfiguration.todoStore().todoVersion(todoId);
+        return written.equals(todoConfiguration.todoStore().findById(todoId)) ? eTag(version) : null;
     }
 
+    @Timed(TIMER)
     public Todo addTodo(final Todo todo) {
         Todo created = new Todo(UUID.randomUUID(), todo.getAccountId(), todo.getEmail(), todo.getDescription(), todo.isCompleted());
 
-        List<Todo> todos = findAllByAccount(created.getAccountId());
-        if(todos==null) {
-            todos = new ArrayList<>();
+        requireValidAccount(created.getAccountId());
+        if (!todoConfiguration.todoStore().addIfAbsent(created)) {
+            throw new IllegalArgumentException("Todo " + created + " already exists");
         }
+        return created;
+    }
 
-        if(todos.stream().filter(t -> t.equals(created)).count()==1) {
-            throw new IllegalArgumentException("Todo " + created + " already exists");
+    @Timed(TIMER)
+    public List<TodoResult> addTodos(final List<Todo> todos) {
+        final Set<UUID> accountIds = todos.stream().map(Todo::getAccountId).filter(Objects::nonNull).collect(Collectors.toSet());
+
+        return TodoBatch.addAll(todoConfiguration.todoStore(), todos, accountValidator.validateAll(accountIds));
+    }
+
+    @Timed(TIMER)
+    public Todo updateTodo(final UUID todoId, final Todo todo, final String expectedETag) {
+        return change(todoId, expectedETag, current -> {
+            if (todo.getAccountId() != null && !todo.getAccountId().equals(current.getAccountId())) {
+                throw new IllegalArgumentException(String.format("Todo with id %s belongs to account %s", todoId,
+                        current.getAccountId()));
+            }
+            return new Todo(todoId, current.getAccountId(), todo.getEmail(), todo.getDescription(), todo.isCompleted());
+        });
+    }
+
+    @Timed(TIMER)
+    public Todo patchTodo(final UUID todoId, final TodoPatch patch, final String expectedETag) {
+        return change(todoId, expectedETag, current -> new Todo(todoId, current.getAccountId(),
+                patch.getEmail() != null ? patch.getEmail() : current.getEmail(),
+                patch.getDescription() != null ? patch.getDescription() : current.getDescription(),
+                patch.getCompleted() != null ? patch.getCompleted() : current.isCompleted()));
+    }
+
+    @Timed(TIMER)
+    public Todo completeTodo(final UUID todoId, final String expectedETag) {
+        return patchTodo(todoId, TodoPatch.completed(true), expectedETag);
+    }
+
+    @Timed(TIMER)
+    public void deleteTodo(final UUID todoId, final String expectedETag) {
+        final long expectedVersion = expectedVersion(todoId, expectedETag);
+        long version;
+        do {
+            version = currentVersion(todoId);
+            requireVersion(todoId, expectedVersion, version);
+        } while (!todoConfiguration.todoStore().remove(todoId, version));
+    }
+
+    /**
+     * Applies the update with a compare-and-set on the version of the todo, which also refuses a duplicate of another
+     * todo of the account. A conditional update fails once the todo moved past the expected version, an unconditional
+     * one is retried on the changed todo.
+     */
+    private Todo change(final UUID todoId, final String expectedETag, final UnaryOperator<Todo> update) {
+        final TodoStore todoStore = todoConfiguration.todoStore();
+        final long expectedVersion = expectedVersion(todoId, expectedETag);
+        while (true) {
+            // the version is read first, so a todo changed in between fails the compare-and-set
+            final long version = currentVersion(todoId);
+            requireVersion(todoId, expectedVersion, version);
+
+            final Todo updated = update.apply(findById(todoId));
+            final Replacement replacement = todoStore.replace(updated, version);
+            if (replacement == Replacement.DUPLICATE) {
+                throw new IllegalArgumentException("Todo " + updated + " already exists");
+            }
+            if (replacement == Replacement.REPLACED) {
+                return updated;
+            }
+        }
+    }
+
+    private long currentVersion(final UUID todoId) {
+        final long version = todoConfiguration.todoStore().todoVersion(todoId);
+        if (version == 0) {
+            throw new IllegalArgumentException(String.format("Todo with id %s not found", todoId));
         }
+        return version;
+    }
 
-        todoConfiguration.todoRepository().get(created.getAccountId()).add(created);
+    private long expectedVersion(final UUID todoId, final String etag) {
+        if (etag == null || "*".equals(etag.trim())) {
+            return ANY_VERSION;
+        }
 
-        return created;
+        final String tag = etag.trim();
+        final String prefix = "\"" + epoch + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (final NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        throw new PreconditionFailedException(String.format("Todo with id %s does not match %s", todoId, etag));
+    }
+
+    private static void requireVersion(final UUID todoId, final long expectedVersion, final long version) {
+        if (expectedVersion != ANY_VERSION && expectedVersion != version) {
+            throw new PreconditionFailedException(String.format("Todo with id %s has been changed", todoId));
+        }
+    }
+
+    private void requireValidAccount(final UUID accountId) {
+        if (!accountClient.isAccountValid(accountId)) {
+            throw new IllegalArgumentException(String.format("Account with id %s not found", accountId));
+        }
+    }
+
+    private String eTag(final long version) {
+        return String.format("\"%s-%d\"", epoch, version);
     }
 }
\ No newline at end of file
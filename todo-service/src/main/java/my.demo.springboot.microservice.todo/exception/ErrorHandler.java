@@ -2,6 +2,7 @@ package my.demo.springboot.microservice.todo.exception;
 
 import java.util.Date;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -14,14 +15,22 @@ import com.netflix.hystrix.exception.HystrixRuntimeException;
 
 @ControllerAdvice
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ErrorHandler extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler(IllegalArgumentException.class)
     public final ResponseEntity<ErrorResult> handleIllegalArgumetException(IllegalArgumentException exception, WebRequest request) {
-        ErrorResult result = new ErrorResult(new Date(), exception.getCause().getMessage(), request.getDescription(false));
+        final Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+        ErrorResult result = new ErrorResult(new Date(), cause.getMessage(), request.getDescription(false));
         return new ResponseEntity<>(result, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public final ResponseEntity<ErrorResult> handlePreconditionFailedException(PreconditionFailedException exception, WebRequest request) {
+        ErrorResult result = new ErrorResult(new Date(), exception.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(result, HttpStatus.PRECONDITION_FAILED);
+    }
+
     @ExceptionHandler(HystrixRuntimeException.class)
     public final ResponseEntity<ErrorResult> handleHystrixRuntimeException(HystrixRuntimeException exception, WebRequest request) {
         ErrorResult result = new ErrorResult(new Date(), exception.getFallbackException().getCause().getMessage(), request.getDescription(false));
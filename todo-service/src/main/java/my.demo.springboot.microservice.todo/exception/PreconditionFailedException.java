@@ -0,0 +1,12 @@
+package my.demo.springboot.microservice.todo.exception;
+
+/**
+ * Signals that a conditional update lost against a concurrent one: the resource is no longer in the state the
+ * client's {@code If-Match} tag stands for.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(final String message) {
+        super(message);
+    }
+}
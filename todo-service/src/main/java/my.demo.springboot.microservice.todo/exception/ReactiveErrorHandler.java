@@ -0,0 +1,22 @@
+package my.demo.springboot.microservice.todo.exception;
+
+import java.util.Date;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebExchange;
+
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveErrorHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public final ResponseEntity<ErrorResult> handleIllegalArgumetException(IllegalArgumentException exception, ServerWebExchange exchange) {
+        final Throwable cause = exception.getCause() != null ? exception.getCause() : exception;
+        ErrorResult result = new ErrorResult(new Date(), cause.getMessage(), "uri=" + exchange.getRequest().getPath());
+        return new ResponseEntity<>(result, HttpStatus.NOT_FOUND);
+    }
+}
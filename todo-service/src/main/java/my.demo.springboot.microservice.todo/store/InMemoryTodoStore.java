@@ -0,0 +1,270 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Keeps todos in a primary {@code todoId -> Todo} index and a secondary {@code accountId -> todoIds} index,
+ * so point lookups and per-account listings don't depend on the total number of stored todos.
+ * <p>
+ * Readers never block: every account publishes an immutable snapshot of its todo ids which readers pick up with a
+ * single volatile read. Adding, replacing and removing todos is serialized per account, replacing one is also a
+ * compare-and-set on its versioned entry in the primary index. An ordered set of all todo ids backs keyset
+ * pagination.
+ * <p>
+ * Every account also indexes the content of its todos, so finding a duplicate is a single lookup. The index only
+ * changes under the account's monitor; a replacement claims its new content with a put-if-absent before the
+ * compare-and-set, so it never takes over the entry of another todo.
+ */
+public class InMemoryTodoStore implements TodoStore {
+
+    private final ConcurrentMap<UUID, StoredTodo> todos = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<UUID, AccountTodos> todosByAccount = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<UUID> orderedTodoIds = new ConcurrentSkipListSet<>();
+
+    // counted after a mutation is visible, so a version read before the todos never stands for newer ones
+    private final AtomicLong version = new AtomicLong();
+
+    @Override
+    public Todo findById(final UUID todoId) {
+        final StoredTodo stored = todos.get(todoId);
+        return stored == null ? null : stored.todo;
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        final List<Todo> result = new ArrayList<>(todos.size());
+        todosByAccount.values().forEach(accountTodos -> collect(accountTodos.snapshot, result));
+        return result;
+    }
+
+    @Override
+    public List<Todo> findAll(final UUID after, final int limit) {
+        final NavigableSet<UUID> todoIds = after == null ? orderedTodoIds : orderedTodoIds.tailSet(after, false);
+
+        final List<Todo> result = new ArrayList<>(limit);
+        final Iterator<UUID> iterator = todoIds.iterator();
+        while (result.size() < limit && iterator.hasNext()) {
+            final StoredTodo stored = todos.get(iterator.next());
+            if (stored != null) {
+                result.add(stored.todo);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Todo> findAllByAccount(final UUID accountId) {
+        final AccountTodos accountTodos = todosByAccount.get(accountId);
+        if (accountTodos == null) {
+            return Collections.emptyList();
+        }
+
+        final Snapshot snapshot = accountTodos.snapshot;
+        return collect(snapshot, new ArrayList<>(snapshot.size));
+    }
+
+    @Override
+    public Todo add(final Todo todo) {
+        final AccountTodos accountTodos = todosByAccount.computeIfAbsent(todo.getAccountId(), id -> new AccountTodos());
+
+        synchronized (accountTodos) {
+            add(accountTodos, todo);
+        }
+        accountTodos.version.incrementAndGet();
+        version.incrementAndGet();
+        return todo;
+    }
+
+    @Override
+    public Todo findEqual(final Todo todo) {
+        final AccountTodos accountTodos = todosByAccount.get(todo.getAccountId());
+        final UUID todoId = accountTodos == null ? null : accountTodos.contents.get(TodoContent.of(todo));
+        if (todoId == null) {
+            return null;
+        }
+
+        // the todo may have been replaced since it was looked up
+        final Todo stored = findById(todoId);
+        return stored != null && stored.equals(todo) ? stored : null;
+    }
+
+    @Override
+    public boolean addIfAbsent(final Todo todo) {
+        final AccountTodos accountTodos = todosByAccount.computeIfAbsent(todo.getAccountId(), id -> new AccountTodos());
+
+        synchronized (accountTodos) {
+            if (accountTodos.contents.containsKey(TodoContent.of(todo))) {
+                return false;
+            }
+            add(accountTodos, todo);
+        }
+        accountTodos.version.incrementAndGet();
+        version.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public Replacement replace(final Todo todo, final long expectedVersion) {
+        final StoredTodo current = todos.get(todo.getTodoId());
+        if (current == null || current.version != expectedVersion) {
+            return Replacement.CHANGED;
+        }
+
+        final AccountTodos accountTodos = todosByAccount.get(current.todo.getAccountId());
+        synchronized (accountTodos) {
+            final TodoContent content = TodoContent.of(todo);
+            final UUID owner = accountTodos.contents.putIfAbsent(content, todo.getTodoId());
+            if (owner != null && !owner.equals(todo.getTodoId())) {
+                return Replacement.DUPLICATE;
+            }
+            if (!todos.replace(todo.getTodoId(), current, new StoredTodo(todo, expectedVersion + 1))) {
+                if (owner == null) {
+                    accountTodos.contents.remove(content, todo.getTodoId());
+                }
+                return Replacement.CHANGED;
+            }
+
+            final TodoContent replaced = TodoContent.of(current.todo);
+            if (!replaced.equals(content)) {
+                accountTodos.contents.remove(replaced, todo.getTodoId());
+            }
+        }
+        accountTodos.version.incrementAndGet();
+        version.incrementAndGet();
+        return Replacement.REPLACED;
+    }
+
+    @Override
+    public boolean remove(final UUID todoId, final long expectedVersion) {
+        final StoredTodo current = todos.get(todoId);
+        if (current == null || current.version != expectedVersion) {
+            return false;
+        }
+
+        final AccountTodos accountTodos = todosByAccount.get(current.todo.getAccountId());
+        synchronized (accountTodos) {
+            if (!todos.remove(todoId, current)) {
+                return false;
+            }
+            accountTodos.remove(todoId);
+            accountTodos.contents.remove(TodoContent.of(current.todo), todoId);
+            orderedTodoIds.remove(todoId);
+        }
+        accountTodos.version.incrementAndGet();
+        version.incrementAndGet();
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return todos.size();
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    public long accountVersion(final UUID accountId) {
+        final AccountTodos accountTodos = todosByAccount.get(accountId);
+        return accountTodos == null ? 0 : accountTodos.version.get();
+    }
+
+    @Override
+    public long todoVersion(final UUID todoId) {
+        final StoredTodo stored = todos.get(todoId);
+        return stored == null ? 0 : stored.version;
+    }
+
+    // callers hold the monitor of the account
+    private void add(final AccountTodos accountTodos, final Todo todo) {
+        todos.put(todo.getTodoId(), new StoredTodo(todo, 1));
+        accountTodos.append(todo.getTodoId());
+        accountTodos.contents.put(TodoContent.of(todo), todo.getTodoId());
+        orderedTodoIds.add(todo.getTodoId());
+    }
+
+    // todos removed since the snapshot was taken are skipped
+    private List<Todo> collect(final Snapshot snapshot, final List<Todo> result) {
+        for (int i = 0; i < snapshot.size; i++) {
+            final StoredTodo stored = todos.get(snapshot.todoIds[i]);
+            if (stored != null) {
+                result.add(stored.todo);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A todo and its version. Entries are compared by identity, which makes replacing one a compare-and-set.
+     */
+    private static final class StoredTodo {
+        private final Todo todo;
+        private final long version;
+
+        private StoredTodo(final Todo todo, final long version) {
+            this.todo = todo;
+            this.version = version;
+        }
+    }
+
+    private static final class AccountTodos {
+
+        private volatile Snapshot snapshot = new Snapshot(new UUID[4], 0);
+
+        private final AtomicLong version = new AtomicLong();
+
+        private final ConcurrentMap<TodoContent, UUID> contents = new ConcurrentHashMap<>();
+
+        // callers hold the monitor of this instance
+        private void append(final UUID todoId) {
+            UUID[] todoIds = snapshot.todoIds;
+            final int size = snapshot.size;
+
+            if (size == todoIds.length) {
+                todoIds = Arrays.copyOf(todoIds, size * 2);
+            }
+            // slots beyond a published size are invisible to readers of older snapshots
+            todoIds[size] = todoId;
+            snapshot = new Snapshot(todoIds, size + 1);
+        }
+
+        // callers hold the monitor of this instance; older snapshots keep their array, so this one gets a copy
+        private void remove(final UUID todoId) {
+            final UUID[] todoIds = snapshot.todoIds;
+            final UUID[] remaining = new UUID[todoIds.length];
+            int size = 0;
+            for (int i = 0; i < snapshot.size; i++) {
+                if (!todoIds[i].equals(todoId)) {
+                    remaining[size++] = todoIds[i];
+                }
+            }
+            snapshot = new Snapshot(remaining, size);
+        }
+    }
+
+    private static final class Snapshot {
+        private final UUID[] todoIds;
+        private final int size;
+
+        private Snapshot(final UUID[] todoIds, final int size) {
+            this.todoIds = todoIds;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file mapped into memory in chunks, so it can grow beyond the 2 GB limit of a single {@link MappedByteBuffer}.
+ * Values are addressed by their absolute file offset; ints and longs must not straddle a chunk boundary, which
+ * holds as long as they are aligned to their size.
+ */
+final class MappedFile implements Closeable {
+
+    private static final int CHUNK_SHIFT = 26;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final FileChannel channel;
+
+    private MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    private long capacity;
+
+    private MappedFile(final FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static MappedFile open(final Path path, final long minimumCapacity) throws IOException {
+        final MappedFile file = new MappedFile(FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        file.ensureCapacity(Math.max(minimumCapacity, file.channel.size()));
+        return file;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows the file to at least the given size, at least doubling it to keep remapping rare.
+     */
+    void ensureCapacity(final long size) throws IOException {
+        if (size <= capacity) {
+            return;
+        }
+
+        final long newCapacity = Math.max(size, capacity * 2);
+        if (channel.size() < newCapacity) {
+            // extends the file sparsely, the pages are only allocated when written
+            channel.write(ByteBuffer.allocate(1), newCapacity - 1);
+        }
+
+        final int count = (int) ((newCapacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        final MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            final long position = (long) i << CHUNK_SHIFT;
+            final long length = Math.min(CHUNK_SIZE, newCapacity - position);
+            mapped[i] = i < chunks.length && chunks[i].capacity() == length ? chunks[i]
+                    : channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+        }
+        chunks = mapped;
+        capacity = newCapacity;
+    }
+
+    /**
+     * Discards the content and maps a file of exactly the given size.
+     */
+    void reset(final long size) throws IOException {
+        chunks = new MappedByteBuffer[0];
+        capacity = 0;
+        channel.truncate(0);
+        ensureCapacity(size);
+    }
+
+    int getInt(final long offset) {
+        return chunk(offset).getInt((int) (offset & CHUNK_MASK));
+    }
+
+    void putInt(final long offset, final int value) {
+        chunk(offset).putInt((int) (offset & CHUNK_MASK), value);
+    }
+
+    long getLong(final long offset) {
+        return chunk(offset).getLong((int) (offset & CHUNK_MASK));
+    }
+
+    void putLong(final long offset, final long value) {
+        chunk(offset).putLong((int) (offset & CHUNK_MASK), value);
+    }
+
+    void getBytes(final long offset, final byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            final long position = offset + copied;
+            final ByteBuffer view = chunk(position).duplicate();
+            view.position((int) (position & CHUNK_MASK));
+            final int length = Math.min(bytes.length - copied, view.remaining());
+            view.get(bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    void putBytes(final long offset, final byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            final long position = offset + copied;
+            final ByteBuffer view = chunk(position).duplicate();
+            view.position((int) (position & CHUNK_MASK));
+            final int length = Math.min(bytes.length - copied, view.remaining());
+            view.put(bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    void force() {
+        for (final MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        chunks = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    private MappedByteBuffer chunk(final long offset) {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)];
+    }
+}
@@ -0,0 +1,775 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Keeps todos off-heap in memory-mapped files, so neither the heap size nor the startup time grows with the number
+ * of stored todos. {@code Todo} objects are only created for the results of a lookup.
+ * <p>
+ * {@code todos.dat} holds fixed-size records of 64 bytes: todo id and account id as two longs each, the offsets of
+ * email and description in {@code strings.dat}, the index of the previous record of the same account, flags and the
+ * number of times the todo was changed. Strings are appended to {@code strings.dat}. A string equal to one of the
+ * last few thousand written, found by its hash code in a small cache, is not written again but shares that copy, so
+ * the email of an account written by consecutive todos is usually stored once; this is a cache, not a dictionary,
+ * equal strings written far apart are stored twice. {@code todos.idx} and {@code accounts.idx} are open-addressing
+ * hash tables from the todo id to its record and from the account id to its newest record, record count and
+ * version; they are rebuilt from the records if they don't match the committed record count, e.g. after a crash.
+ * {@code contents.idx} maps the hash of the content of each live todo to its record to find duplicates without
+ * reading an account's todos; it keeps the version of {@code todos.dat} it was written for and is rebuilt if that
+ * differs.
+ * <p>
+ * Replacing a todo rewrites its record in place, removing one only flags it as deleted, so records, the todo index
+ * and the account index stay append-only. The strings a replacement or removal leaves behind are garbage: once
+ * {@code strings.dat} has doubled since it was last compacted, the strings of the live todos are copied into a new
+ * file, and the records are pointed to their new offsets through {@code strings.remap}, which a crash in between
+ * leaves in place to finish the next time the store is opened. {@link #findAll(UUID, int)} pages in insertion order
+ * and returns an empty page for an id that was never stored, see {@link TodoStore}. Readers share a read lock,
+ * writers are serialized, which makes every compare-and-set trivially atomic.
+ */
+public class MappedTodoStore implements TodoStore, Closeable {
+
+    private static final int MAGIC = 0x544f444f;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int RECORD_BYTES = 64;
+
+    private static final int TODO_ID = 0;
+    private static final int ACCOUNT_ID = 16;
+    private static final int EMAIL = 32;
+    private static final int DESCRIPTION = 40;
+    private static final int PREVIOUS_IN_ACCOUNT = 48;
+    private static final int FLAGS = 52;
+    private static final int CHANGES = 56;
+
+    private static final int COMPLETED = 1;
+    private static final int DELETED = 2;
+
+    private static final long NO_STRING = -1;
+
+    // header fields shared by all files, the second one is the record size or the number of slots
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_RECORD_BYTES = 4;
+    private static final int HEADER_CAPACITY = 4;
+    private static final int HEADER_COUNT = 8;
+
+    // further header fields of todos.dat, accounts.idx and contents.idx
+    private static final int HEADER_VERSION = 16;
+    private static final int HEADER_DELETED = 24;
+    private static final int HEADER_REMAPPING = 32;
+    private static final int HEADER_SLOT_BYTES = 16;
+
+    // further header field of strings.dat, the size it had after the last compaction
+    private static final int HEADER_COMPACTED = 16;
+
+    private static final int ACCOUNT_SLOT_BYTES = 16;
+    private static final int CONTENT_SLOT_BYTES = 16;
+
+    private static final int INITIAL_RECORDS = 1 << 16;
+    private static final int INITIAL_SLOTS = 1 << 16;
+    private static final int INTERNED_STRINGS = 1 << 12;
+    private static final long MIN_COMPACTED_BYTES = 1 << 20;
+
+    private static final String STRINGS = "strings.dat";
+    private static final String COMPACTED_STRINGS = "strings.new";
+    private static final String STRINGS_REMAP = "strings.remap";
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedTodoStore.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Path directory;
+
+    private final MappedFile records;
+    // guarded by the write lock, replaced by a compaction
+    private MappedFile strings;
+    private final MappedFile todoIndex;
+    private final MappedFile accountIndex;
+    private final MappedFile contentIndex;
+
+    // guarded by the write lock
+    private final String[] internedStrings = new String[INTERNED_STRINGS];
+    private final long[] internedOffsets = new long[INTERNED_STRINGS];
+
+    private MappedTodoStore(final Path directory, final MappedFile records, final MappedFile strings,
+            final MappedFile todoIndex, final MappedFile accountIndex, final MappedFile contentIndex) {
+        this.directory = directory;
+        this.records = records;
+        this.strings = strings;
+        this.todoIndex = todoIndex;
+        this.accountIndex = accountIndex;
+        this.contentIndex = contentIndex;
+    }
+
+    public static MappedTodoStore open(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        final MappedTodoStore store = new MappedTodoStore(directory,
+                MappedFile.open(directory.resolve("todos.dat"), HEADER_BYTES + (long) INITIAL_RECORDS * RECORD_BYTES),
+                MappedFile.open(directory.resolve(STRINGS), HEADER_BYTES + (long) INITIAL_RECORDS * 32),
+                MappedFile.open(directory.resolve("todos.idx"), HEADER_BYTES + (long) INITIAL_SLOTS * 4),
+                MappedFile.open(directory.resolve("accounts.idx"), HEADER_BYTES + (long) INITIAL_SLOTS * ACCOUNT_SLOT_BYTES),
+                MappedFile.open(directory.resolve("contents.idx"), HEADER_BYTES + (long) INITIAL_SLOTS * CONTENT_SLOT_BYTES));
+        store.initialize();
+        return store;
+    }
+
+    @Override
+    public Todo findById(final UUID todoId) {
+        lock.readLock().lock();
+        try {
+            final int record = findLiveRecord(todoId);
+            return record < 0 ? null : readTodo(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        lock.readLock().lock();
+        try {
+            final int count = recordCount();
+            final List<Todo> result = new ArrayList<>(count);
+            for (int record = 0; record < count; record++) {
+                if (!isDeleted(record)) {
+                    result.add(readTodo(record));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> findAll(final UUID after, final int limit) {
+        lock.readLock().lock();
+        try {
+            int record = 0;
+            if (after != null) {
+                final int previous = findRecord(after.getMostSignificantBits(), after.getLeastSignificantBits());
+                if (previous < 0) {
+                    return Collections.emptyList();
+                }
+                record = previous + 1;
+            }
+
+            final int count = recordCount();
+            final List<Todo> result = new ArrayList<>(Math.max(Math.min(count - record, limit), 0));
+            for (; record < count && result.size() < limit; record++) {
+                if (!isDeleted(record)) {
+                    result.add(readTodo(record));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> findAllByAccount(final UUID accountId) {
+        lock.readLock().lock();
+        try {
+            final int slot = findAccountSlot(accountId.getMostSignificantBits(), accountId.getLeastSignificantBits());
+            final long offset = accountSlotOffset(slot);
+            final int head = accountIndex.getInt(offset) - 1;
+            if (head < 0) {
+                return Collections.emptyList();
+            }
+
+            // the chain runs from the newest record backwards
+            final List<Todo> todos = new ArrayList<>(accountIndex.getInt(offset + 4));
+            for (int record = head; record >= 0; record = records.getInt(recordOffset(record) + PREVIOUS_IN_ACCOUNT)) {
+                if (!isDeleted(record)) {
+                    todos.add(readTodo(record));
+                }
+            }
+            Collections.reverse(todos);
+            return todos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Todo findEqual(final Todo todo) {
+        lock.readLock().lock();
+        try {
+            final int record = findEqualRecord(todo);
+            return record < 0 ? null : readTodo(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addIfAbsent(final Todo todo) {
+        lock.writeLock().lock();
+        try {
+            if (findEqualRecord(todo) >= 0) {
+                return false;
+            }
+            add(todo);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Todo add(final Todo todo) {
+        lock.writeLock().lock();
+        try {
+            final UUID todoId = todo.getTodoId();
+            if (findRecord(todoId.getMostSignificantBits(), todoId.getLeastSignificantBits()) >= 0) {
+                throw new IllegalStateException(String.format("Todo with id %s is already stored", todoId));
+            }
+
+            final int record = recordCount();
+            final long offset = recordOffset(record);
+            records.ensureCapacity(offset + RECORD_BYTES);
+            ensureIndexCapacity(record + 1);
+            ensureContentCapacity();
+
+            final UUID accountId = todo.getAccountId();
+            final int accountSlot = findAccountSlot(accountId.getMostSignificantBits(),
+                    accountId.getLeastSignificantBits());
+            final long accountOffset = accountSlotOffset(accountSlot);
+
+            records.putLong(offset + TODO_ID, todoId.getMostSignificantBits());
+            records.putLong(offset + TODO_ID + 8, todoId.getLeastSignificantBits());
+            records.putLong(offset + ACCOUNT_ID, accountId.getMostSignificantBits());
+            records.putLong(offset + ACCOUNT_ID + 8, accountId.getLeastSignificantBits());
+            records.putLong(offset + EMAIL, writeString(strings, todo.getEmail()));
+            records.putLong(offset + DESCRIPTION, writeString(strings, todo.getDescription()));
+            records.putInt(offset + PREVIOUS_IN_ACCOUNT, accountIndex.getInt(accountOffset) - 1);
+            records.putInt(offset + FLAGS, todo.isCompleted() ? COMPLETED : 0);
+            records.putLong(offset + CHANGES, 0);
+
+            // the record counts once the header is updated, the indexes follow
+            records.putLong(HEADER_COUNT, record + 1);
+            records.putLong(HEADER_VERSION, records.getLong(HEADER_VERSION) + 1);
+            index(record, accountSlot);
+            indexContent(record, TodoContent.of(todo).hash64());
+            contentIndex.putLong(HEADER_VERSION, records.getLong(HEADER_VERSION));
+            return todo;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> addAll(final List<Todo> todos) {
+        lock.writeLock().lock();
+        try {
+            todos.forEach(this::add);
+            return todos;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> addAllIfAbsent(final List<Todo> todos) {
+        lock.writeLock().lock();
+        try {
+            final List<Todo> added = new ArrayList<>(todos.size());
+            for (final Todo todo : todos) {
+                if (findEqualRecord(todo) < 0) {
+                    added.add(add(todo));
+                }
+            }
+            return added;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Replacement replace(final Todo todo, final long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            final int record = findLiveRecord(todo.getTodoId());
+            if (record < 0 || todoVersion(record) != expectedVersion) {
+                return Replacement.CHANGED;
+            }
+            final int equalRecord = findEqualRecord(todo);
+            if (equalRecord >= 0 && equalRecord != record) {
+                return Replacement.DUPLICATE;
+            }
+
+            ensureContentCapacity();
+            final long offset = recordOffset(record);
+            final Todo current = readTodo(record);
+            // unchanged strings keep their copy, completing a todo writes no strings at all
+            if (!Objects.equals(current.getEmail(), todo.getEmail())) {
+                records.putLong(offset + EMAIL, writeString(strings, todo.getEmail()));
+            }
+            if (!Objects.equals(current.getDescription(), todo.getDescription())) {
+                records.putLong(offset + DESCRIPTION, writeString(strings, todo.getDescription()));
+            }
+            records.putInt(offset + FLAGS, todo.isCompleted() ? COMPLETED : 0);
+            changed(record);
+            unindexContent(record, TodoContent.of(current).hash64());
+            indexContent(record, TodoContent.of(todo).hash64());
+            contentIndex.putLong(HEADER_VERSION, records.getLong(HEADER_VERSION));
+            compactStringsIfGrown();
+            return Replacement.REPLACED;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(final UUID todoId, final long expectedVersion) {
+        lock.writeLock().lock();
+        try {
+            final int record = findLiveRecord(todoId);
+            if (record < 0 || todoVersion(record) != expectedVersion) {
+                return false;
+            }
+
+            final long offset = recordOffset(record);
+            final long contentHash = TodoContent.of(readTodo(record)).hash64();
+            records.putInt(offset + FLAGS, records.getInt(offset + FLAGS) | DELETED);
+            records.putLong(HEADER_DELETED, records.getLong(HEADER_DELETED) + 1);
+            changed(record);
+            unindexContent(record, contentHash);
+            contentIndex.putLong(HEADER_VERSION, records.getLong(HEADER_VERSION));
+            compactStringsIfGrown();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long version() {
+        lock.readLock().lock();
+        try {
+            return records.getLong(HEADER_VERSION);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long accountVersion(final UUID accountId) {
+        lock.readLock().lock();
+        try {
+            final int slot = findAccountSlot(accountId.getMostSignificantBits(), accountId.getLeastSignificantBits());
+            return accountIndex.getLong(accountSlotOffset(slot) + 8);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long todoVersion(final UUID todoId) {
+        lock.readLock().lock();
+        try {
+            final int record = findLiveRecord(todoId);
+            return record < 0 ? 0 : todoVersion(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            records.close();
+            strings.close();
+            todoIndex.close();
+            accountIndex.close();
+            contentIndex.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void initialize() throws IOException {
+        if (records.getInt(HEADER_MAGIC) != MAGIC) {
+            records.putInt(HEADER_MAGIC, MAGIC);
+            records.putInt(HEADER_RECORD_BYTES, RECORD_BYTES);
+            records.putLong(HEADER_COUNT, 0);
+        }
+        if (strings.getInt(HEADER_MAGIC) != MAGIC) {
+            strings.putInt(HEADER_MAGIC, MAGIC);
+            strings.putLong(HEADER_COUNT, HEADER_BYTES);
+        }
+        if (records.getLong(HEADER_REMAPPING) != 0) {
+            logger.info("Finishing the compaction of the strings");
+            finishCompaction();
+        }
+
+        final int count = recordCount();
+        if (records.getLong(HEADER_VERSION) == 0 && count > 0) {
+            // written before todos could change, every record was added exactly once
+            records.putLong(HEADER_VERSION, count);
+        }
+        if (todoIndex.getInt(HEADER_MAGIC) != MAGIC || todoIndex.getLong(HEADER_COUNT) != count
+                || accountIndex.getInt(HEADER_MAGIC) != MAGIC || accountIndex.getLong(HEADER_COUNT) != count
+                || accountIndex.getInt(HEADER_SLOT_BYTES) != ACCOUNT_SLOT_BYTES) {
+            logger.info("Rebuilding the indexes of {} todos", count);
+            rebuildIndexes(Math.max(INITIAL_SLOTS, slotsFor(count)));
+        }
+        if (contentIndex.getInt(HEADER_MAGIC) != MAGIC
+                || contentIndex.getLong(HEADER_VERSION) != records.getLong(HEADER_VERSION)) {
+            logger.info("Rebuilding the content index of {} todos", count);
+            rebuildContentIndex(Math.max(INITIAL_SLOTS, slotsFor(liveCount())));
+        }
+    }
+
+    private void ensureIndexCapacity(final int count) throws IOException {
+        if (count > todoIndex.getInt(HEADER_CAPACITY) / 2) {
+            rebuildIndexes(todoIndex.getInt(HEADER_CAPACITY) * 2);
+        }
+    }
+
+    private void rebuildIndexes(final int slots) throws IOException {
+        todoIndex.reset(HEADER_BYTES + (long) slots * 4);
+        todoIndex.putInt(HEADER_CAPACITY, slots);
+        accountIndex.reset(HEADER_BYTES + (long) slots * ACCOUNT_SLOT_BYTES);
+        accountIndex.putInt(HEADER_CAPACITY, slots);
+        accountIndex.putInt(HEADER_SLOT_BYTES, ACCOUNT_SLOT_BYTES);
+
+        final int count = recordCount();
+        for (int record = 0; record < count; record++) {
+            final long offset = recordOffset(record);
+            index(record, findAccountSlot(records.getLong(offset + ACCOUNT_ID),
+                    records.getLong(offset + ACCOUNT_ID + 8)));
+        }
+
+        todoIndex.putInt(HEADER_MAGIC, MAGIC);
+        accountIndex.putInt(HEADER_MAGIC, MAGIC);
+    }
+
+    private void ensureContentCapacity() throws IOException {
+        if (contentIndex.getLong(HEADER_COUNT) + 1 > contentIndex.getInt(HEADER_CAPACITY) / 2) {
+            rebuildContentIndex(Math.max(INITIAL_SLOTS, slotsFor(liveCount() + 1)));
+        }
+    }
+
+    private void rebuildContentIndex(final int slots) throws IOException {
+        contentIndex.reset(HEADER_BYTES + (long) slots * CONTENT_SLOT_BYTES);
+        contentIndex.putInt(HEADER_CAPACITY, slots);
+        contentIndex.putLong(HEADER_COUNT, 0);
+
+        final int count = recordCount();
+        for (int record = 0; record < count; record++) {
+            if (!isDeleted(record)) {
+                indexContent(record, TodoContent.of(readTodo(record)).hash64());
+            }
+        }
+
+        contentIndex.putLong(HEADER_VERSION, records.getLong(HEADER_VERSION));
+        contentIndex.putInt(HEADER_MAGIC, MAGIC);
+    }
+
+    private void indexContent(final int record, final long hash) {
+        final int mask = contentIndex.getInt(HEADER_CAPACITY) - 1;
+        int slot = (int) hash & mask;
+        while (contentIndex.getInt(contentSlotOffset(slot) + 8) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        contentIndex.putLong(contentSlotOffset(slot), hash);
+        contentIndex.putInt(contentSlotOffset(slot) + 8, record + 1);
+        contentIndex.putLong(HEADER_COUNT, contentIndex.getLong(HEADER_COUNT) + 1);
+    }
+
+    // the removed entry's slot is refilled from the rest of its probe run, entries that would end up before their
+    // home slot stay where they are
+    private void unindexContent(final int record, final long hash) {
+        final int mask = contentIndex.getInt(HEADER_CAPACITY) - 1;
+        int hole = (int) hash & mask;
+        while (contentIndex.getInt(contentSlotOffset(hole) + 8) != record + 1) {
+            if (contentIndex.getInt(contentSlotOffset(hole) + 8) == 0) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+
+        for (int slot = (hole + 1) & mask; contentIndex.getInt(contentSlotOffset(slot) + 8) != 0;
+                slot = (slot + 1) & mask) {
+            final long slotHash = contentIndex.getLong(contentSlotOffset(slot));
+            final int home = (int) slotHash & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                contentIndex.putLong(contentSlotOffset(hole), slotHash);
+                contentIndex.putInt(contentSlotOffset(hole) + 8, contentIndex.getInt(contentSlotOffset(slot) + 8));
+                hole = slot;
+            }
+        }
+        contentIndex.putLong(contentSlotOffset(hole), 0);
+        contentIndex.putInt(contentSlotOffset(hole) + 8, 0);
+        contentIndex.putLong(HEADER_COUNT, contentIndex.getLong(HEADER_COUNT) - 1);
+    }
+
+    // different contents may share a hash, so every record with a matching hash is read and compared
+    private int findEqualRecord(final Todo todo) {
+        final long hash = TodoContent.of(todo).hash64();
+        final int mask = contentIndex.getInt(HEADER_CAPACITY) - 1;
+        int slot = (int) hash & mask;
+        while (true) {
+            final long offset = contentSlotOffset(slot);
+            final int record = contentIndex.getInt(offset + 8) - 1;
+            if (record < 0) {
+                return -1;
+            }
+            if (contentIndex.getLong(offset) == hash && !isDeleted(record) && todo.equals(readTodo(record))) {
+                return record;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void index(final int record, final int accountSlot) {
+        final long offset = recordOffset(record);
+        final int todoSlot = findTodoSlot(records.getLong(offset + TODO_ID), records.getLong(offset + TODO_ID + 8));
+        todoIndex.putInt(todoSlotOffset(todoSlot), record + 1);
+        todoIndex.putLong(HEADER_COUNT, record + 1);
+
+        final long accountOffset = accountSlotOffset(accountSlot);
+        accountIndex.putInt(accountOffset + 4, accountIndex.getInt(accountOffset + 4) + 1);
+        accountIndex.putLong(accountOffset + 8, accountIndex.getLong(accountOffset + 8) + todoVersion(record));
+        accountIndex.putInt(accountOffset, record + 1);
+        accountIndex.putLong(HEADER_COUNT, record + 1);
+    }
+
+    // counts a change of the record towards its own, its account's and the store's version
+    private void changed(final int record) {
+        final long offset = recordOffset(record);
+        records.putLong(offset + CHANGES, records.getLong(offset + CHANGES) + 1);
+        records.putLong(HEADER_VERSION, records.getLong(HEADER_VERSION) + 1);
+
+        final long accountOffset = accountSlotOffset(findAccountSlot(records.getLong(offset + ACCOUNT_ID),
+                records.getLong(offset + ACCOUNT_ID + 8)));
+        accountIndex.putLong(accountOffset + 8, accountIndex.getLong(accountOffset + 8) + 1);
+    }
+
+    private void compactStringsIfGrown() throws IOException {
+        final long size = strings.getLong(HEADER_COUNT);
+        if (size >= MIN_COMPACTED_BYTES && size >= 2 * strings.getLong(HEADER_COMPACTED)) {
+            logger.info("Compacting {} bytes of strings", size);
+            compactStrings();
+        }
+    }
+
+    // copies the strings of the live records into a new file and keeps their new offsets in the remap file; once
+    // both are complete, the flag in todos.dat makes a crash from here on finish the compaction on the next open
+    private void compactStrings() throws IOException {
+        final int count = recordCount();
+        Arrays.fill(internedStrings, null);
+        try (MappedFile compacted = MappedFile.open(directory.resolve(COMPACTED_STRINGS), 0);
+                MappedFile remap = MappedFile.open(directory.resolve(STRINGS_REMAP), 0)) {
+            compacted.reset(HEADER_BYTES + (long) INITIAL_RECORDS * 32);
+            compacted.putLong(HEADER_COUNT, HEADER_BYTES);
+            remap.reset(Math.max((long) count * 16, 16));
+            for (int record = 0; record < count; record++) {
+                final long offset = recordOffset(record);
+                final boolean deleted = isDeleted(record);
+                remap.putLong((long) record * 16, deleted ? NO_STRING
+                        : writeString(compacted, readString(records.getLong(offset + EMAIL))));
+                remap.putLong((long) record * 16 + 8, deleted ? NO_STRING
+                        : writeString(compacted, readString(records.getLong(offset + DESCRIPTION))));
+            }
+            compacted.putLong(HEADER_COMPACTED, compacted.getLong(HEADER_COUNT));
+            compacted.putInt(HEADER_MAGIC, MAGIC);
+        } catch (IOException | RuntimeException e) {
+            // the cached offsets may point into the discarded file
+            Arrays.fill(internedStrings, null);
+            throw e;
+        }
+
+        records.putLong(HEADER_REMAPPING, 1);
+        records.force();
+        finishCompaction();
+    }
+
+    // repeatable: the remap file and the new strings stay until the records point into them
+    private void finishCompaction() throws IOException {
+        final Path remapPath = directory.resolve(STRINGS_REMAP);
+        try (MappedFile remap = MappedFile.open(remapPath, 0)) {
+            final int count = recordCount();
+            for (int record = 0; record < count; record++) {
+                final long offset = recordOffset(record);
+                records.putLong(offset + EMAIL, remap.getLong((long) record * 16));
+                records.putLong(offset + DESCRIPTION, remap.getLong((long) record * 16 + 8));
+            }
+        }
+        records.force();
+
+        final Path compactedPath = directory.resolve(COMPACTED_STRINGS);
+        if (Files.exists(compactedPath)) {
+            strings.close();
+            Files.move(compactedPath, directory.resolve(STRINGS), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            strings = MappedFile.open(directory.resolve(STRINGS), 0);
+        }
+        records.putLong(HEADER_REMAPPING, 0);
+        Files.delete(remapPath);
+    }
+
+    private int findLiveRecord(final UUID todoId) {
+        final int record = findRecord(todoId.getMostSignificantBits(), todoId.getLeastSignificantBits());
+        return record < 0 || isDeleted(record) ? -1 : record;
+    }
+
+    private boolean isDeleted(final int record) {
+        return (records.getInt(recordOffset(record) + FLAGS) & DELETED) != 0;
+    }
+
+    // a todo is at version 1 when added, every change counts one more
+    private long todoVersion(final int record) {
+        return 1 + records.getLong(recordOffset(record) + CHANGES);
+    }
+
+    private int findRecord(final long mostSignificantBits, final long leastSignificantBits) {
+        return todoIndex.getInt(todoSlotOffset(findTodoSlot(mostSignificantBits, leastSignificantBits))) - 1;
+    }
+
+    // returns the slot holding the todo or the empty slot it belongs into
+    private int findTodoSlot(final long mostSignificantBits, final long leastSignificantBits) {
+        final int mask = todoIndex.getInt(HEADER_CAPACITY) - 1;
+        int slot = hash(mostSignificantBits, leastSignificantBits) & mask;
+        while (true) {
+            final int record = todoIndex.getInt(todoSlotOffset(slot)) - 1;
+            if (record < 0 || matches(record, TODO_ID, mostSignificantBits, leastSignificantBits)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // returns the slot holding the account or the empty slot it belongs into
+    private int findAccountSlot(final long mostSignificantBits, final long leastSignificantBits) {
+        final int mask = accountIndex.getInt(HEADER_CAPACITY) - 1;
+        int slot = hash(mostSignificantBits, leastSignificantBits) & mask;
+        while (true) {
+            final int record = accountIndex.getInt(accountSlotOffset(slot)) - 1;
+            if (record < 0 || matches(record, ACCOUNT_ID, mostSignificantBits, leastSignificantBits)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(final int record, final int field, final long mostSignificantBits,
+            final long leastSignificantBits) {
+        final long offset = recordOffset(record) + field;
+        return records.getLong(offset) == mostSignificantBits && records.getLong(offset + 8) == leastSignificantBits;
+    }
+
+    private Todo readTodo(final int record) {
+        final long offset = recordOffset(record);
+        return new Todo(new UUID(records.getLong(offset + TODO_ID), records.getLong(offset + TODO_ID + 8)),
+                new UUID(records.getLong(offset + ACCOUNT_ID), records.getLong(offset + ACCOUNT_ID + 8)),
+                readString(records.getLong(offset + EMAIL)), readString(records.getLong(offset + DESCRIPTION)),
+                (records.getInt(offset + FLAGS) & COMPLETED) != 0);
+    }
+
+    private long writeString(final MappedFile file, final String value) throws IOException {
+        if (value == null) {
+            return NO_STRING;
+        }
+
+        final int slot = value.hashCode() & (INTERNED_STRINGS - 1);
+        if (value.equals(internedStrings[slot])) {
+            return internedOffsets[slot];
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final long offset = file.getLong(HEADER_COUNT);
+        final long end = (offset + 4 + bytes.length + 3) & ~3L;
+        file.ensureCapacity(end);
+        file.putInt(offset, bytes.length);
+        file.putBytes(offset + 4, bytes);
+        file.putLong(HEADER_COUNT, end);
+
+        internedStrings[slot] = value;
+        internedOffsets[slot] = offset;
+        return offset;
+    }
+
+    private String readString(final long offset) {
+        if (offset == NO_STRING) {
+            return null;
+        }
+        final byte[] bytes = new byte[strings.getInt(offset)];
+        strings.getBytes(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int recordCount() {
+        return (int) records.getLong(HEADER_COUNT);
+    }
+
+    private int liveCount() {
+        return recordCount() - (int) records.getLong(HEADER_DELETED);
+    }
+
+    private static long recordOffset(final int record) {
+        return HEADER_BYTES + (long) record * RECORD_BYTES;
+    }
+
+    private static long todoSlotOffset(final int slot) {
+        return HEADER_BYTES + (long) slot * 4;
+    }
+
+    private static long accountSlotOffset(final int slot) {
+        return HEADER_BYTES + (long) slot * ACCOUNT_SLOT_BYTES;
+    }
+
+    private static long contentSlotOffset(final int slot) {
+        return HEADER_BYTES + (long) slot * CONTENT_SLOT_BYTES;
+    }
+
+    private static int slotsFor(final int count) {
+        return Integer.highestOneBit(Math.max(count, 1) * 2 - 1) * 2;
+    }
+
+    private static int hash(final long mostSignificantBits, final long leastSignificantBits) {
+        long hash = mostSignificantBits ^ leastSignificantBits;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+}
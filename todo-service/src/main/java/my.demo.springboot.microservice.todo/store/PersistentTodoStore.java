@@ -0,0 +1,440 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Makes a {@link TodoStore} durable. Every mutation is appended to a {@link TodoJournal} and applied to the delegate
+ * once it is on disk; a background task periodically writes a compacted snapshot of the delegate and deletes the
+ * journal segments it covers. On startup the latest valid snapshot is loaded and the journal tail replayed on top.
+ * <p>
+ * Replay is idempotent, since a snapshot may already contain mutations from the first segment after it.
+ * <p>
+ * Every operation that changes the content of an account's todos holds the lock stripe of the account: replacing or
+ * removing a todo checks its version, and a replacement or an addition checks for an equal todo, before the mutation
+ * is journaled and applied, so the journal never records a mutation that lost its compare-and-set or made a duplicate.
+ * Adding a batch holds the stripes of all its accounts while the batch is journaled in group commits.
+ */
+public class PersistentTodoStore implements TodoStore, Closeable {
+
+    private static final int SNAPSHOT_MAGIC = 0x544f444f;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+
+    private static final int LOCK_STRIPES = 256;
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistentTodoStore.class);
+
+    private final TodoStore delegate;
+
+    private final Path directory;
+
+    private final TodoJournal journal;
+
+    // mutations hold the read lock until they are applied, rolling the journal for a snapshot takes the write lock
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong mutationsSinceSnapshot = new AtomicLong();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final ScheduledExecutorService snapshotScheduler;
+
+    private PersistentTodoStore(final TodoStore delegate, final Path directory, final TodoJournal journal,
+            final long snapshotIntervalSeconds) {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.journal = journal;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "todo-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(this::snapshotIfChanged, snapshotIntervalSeconds,
+                snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Recovers the delegate from the snapshot and journal in the given directory and opens the journal for appending.
+     */
+    public static PersistentTodoStore open(final TodoStore delegate, final Path directory,
+            final long snapshotIntervalSeconds) throws IOException {
+        Files.createDirectories(directory);
+
+        final long started = System.nanoTime();
+        final long snapshotSequence = loadSnapshot(directory, delegate);
+        final long nextSequence = TodoJournal.replay(directory, snapshotSequence,
+                (type, todo) -> apply(delegate, type, todo));
+        logger.info("Recovered {} todos from {} up to sequence {} in {} ms", delegate.size(), directory, nextSequence,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        return new PersistentTodoStore(delegate, directory, TodoJournal.open(directory, nextSequence),
+                snapshotIntervalSeconds);
+    }
+
+    @Override
+    public Todo findById(final UUID todoId) {
+        return delegate.findById(todoId);
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Todo> findAll(final UUID after, final int limit) {
+        return delegate.findAll(after, limit);
+    }
+
+    @Override
+    public List<Todo> findAllByAccount(final UUID accountId) {
+        return delegate.findAllByAccount(accountId);
+    }
+
+    @Override
+    public Todo add(final Todo todo) {
+        snapshotLock.readLock().lock();
+        try {
+            awaitDurable(journal.append(TodoJournal.ADD, todo));
+            mutationsSinceSnapshot.incrementAndGet();
+            return delegate.add(todo);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Todo findEqual(final Todo todo) {
+        return delegate.findEqual(todo);
+    }
+
+    @Override
+    public boolean addIfAbsent(final Todo todo) {
+        synchronized (lock(todo.getAccountId())) {
+            if (delegate.findEqual(todo) != null) {
+                return false;
+            }
+            add(todo);
+            return true;
+        }
+    }
+
+    @Override
+    public List<Todo> addAll(final List<Todo> todos) {
+        snapshotLock.readLock().lock();
+        try {
+            // the journal writes the appends in group commits, so the whole list costs a few syncs instead of one each;
+            // it encodes the list before queuing any of it, so a todo that can't be written leaves no others behind
+            journal.appendAll(TodoJournal.ADD, todos).forEach(PersistentTodoStore::awaitDurable);
+            mutationsSinceSnapshot.addAndGet(todos.size());
+            return delegate.addAll(todos);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Todo> addAllIfAbsent(final List<Todo> todos) {
+        final int[] stripes = todos.stream().mapToInt(todo -> stripe(todo.getAccountId())).distinct().sorted()
+                .toArray();
+        return locked(stripes, 0, () -> {
+            final Set<Todo> batchTodos = new HashSet<>();
+            return addAll(todos.stream().filter(todo -> delegate.findEqual(todo) == null && batchTodos.add(todo))
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    @Override
+    public Replacement replace(final Todo todo, final long expectedVersion) {
+        final Todo current = delegate.findById(todo.getTodoId());
+        if (current == null) {
+            return Replacement.CHANGED;
+        }
+        synchronized (lock(current.getAccountId())) {
+            if (delegate.todoVersion(todo.getTodoId()) != expectedVersion) {
+                return Replacement.CHANGED;
+            }
+            final Todo equal = delegate.findEqual(todo);
+            if (equal != null && !equal.getTodoId().equals(todo.getTodoId())) {
+                return Replacement.DUPLICATE;
+            }
+            return journaled(TodoJournal.UPDATE, todo, () -> delegate.replace(todo, expectedVersion) == Replacement.REPLACED)
+                    ? Replacement.REPLACED : Replacement.CHANGED;
+        }
+    }
+
+    @Override
+    public boolean remove(final UUID todoId, final long expectedVersion) {
+        final Todo current = delegate.findById(todoId);
+        if (current == null) {
+            return false;
+        }
+        synchronized (lock(current.getAccountId())) {
+            final Todo todo = delegate.findById(todoId);
+            if (todo == null || delegate.todoVersion(todoId) != expectedVersion) {
+                return false;
+            }
+            return journaled(TodoJournal.DELETE, todo, () -> delegate.remove(todoId, expectedVersion));
+        }
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
+    @Override
+    public long accountVersion(final UUID accountId) {
+        return delegate.accountVersion(accountId);
+    }
+
+    @Override
+    public long todoVersion(final UUID todoId) {
+        return delegate.todoVersion(todoId);
+    }
+
+    /**
+     * Writes a snapshot of the delegate and deletes the journal segments and snapshots it supersedes.
+     */
+    public synchronized void snapshot() throws IOException {
+        final long sequence;
+        snapshotLock.writeLock().lock();
+        try {
+            sequence = journal.roll();
+            mutationsSinceSnapshot.set(0);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        // every mutation below the sequence is applied by now, later ones may or may not be part of the snapshot
+        final List<Todo> todos = delegate.findAll();
+        final Path snapshot = snapshotPath(directory, sequence);
+        final Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            final CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 64 * 1024),
+                    new CRC32());
+            final DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeLong(sequence);
+            output.writeLong(todos.size());
+            for (final Todo todo : todos) {
+                TodoRecords.write(output, todo);
+            }
+            output.writeInt((int) checked.getChecksum().getValue());
+            output.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE);
+        TodoJournal.syncDirectory(directory);
+
+        for (final Path older : snapshots(directory)) {
+            if (snapshotSequence(older) < sequence) {
+                Files.deleteIfExists(older);
+            }
+        }
+        journal.deleteSegmentsBefore(sequence);
+
+        logger.info("Wrote snapshot of {} todos at sequence {}", todos.size(), sequence);
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotScheduler.shutdown();
+        try {
+            snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            if (mutationsSinceSnapshot.get() > 0) {
+                snapshot();
+            }
+        } finally {
+            journal.close();
+            if (delegate instanceof Closeable) {
+                ((Closeable) delegate).close();
+            }
+        }
+    }
+
+    private void snapshotIfChanged() {
+        if (mutationsSinceSnapshot.get() == 0) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Writing a snapshot to {} failed", directory, e);
+        }
+    }
+
+    private boolean journaled(final byte type, final Todo todo, final BooleanSupplier mutation) {
+        snapshotLock.readLock().lock();
+        try {
+            awaitDurable(journal.append(type, todo));
+            mutationsSinceSnapshot.incrementAndGet();
+            return mutation.getAsBoolean();
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    // every operation takes the stripe of its account, except for a batch
+    private Object lock(final UUID id) {
+        return locks[stripe(id)];
+    }
+
+    private static int stripe(final UUID id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES;
+    }
+
+    // a batch takes the stripes of its accounts in ascending order, so two batches never wait for each other
+    private <T> T locked(final int[] stripes, final int from, final Supplier<T> action) {
+        if (from == stripes.length) {
+            return action.get();
+        }
+        synchronized (locks[stripes[from]]) {
+            return locked(stripes, from + 1, action);
+        }
+    }
+
+    private static void apply(final TodoStore store, final byte type, final Todo todo) {
+        final long version = store.todoVersion(todo.getTodoId());
+        if (type == TodoJournal.ADD) {
+            if (version == 0) {
+                store.add(todo);
+            }
+        } else if (type == TodoJournal.UPDATE) {
+            if (version > 0) {
+                store.replace(todo, version);
+            }
+        } else if (type == TodoJournal.DELETE) {
+            if (version > 0) {
+                store.remove(todo.getTodoId(), version);
+            }
+        } else {
+            throw new IllegalStateException(String.format("Unknown journal record type %d", type));
+        }
+    }
+
+    private static void awaitDurable(final CompletableFuture<Long> durable) {
+        try {
+            durable.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the journal", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? new UncheckedIOException((IOException) cause)
+                    : new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Loads the newest valid snapshot into the store and returns the journal sequence number it covers.
+     */
+    private static long loadSnapshot(final Path directory, final TodoStore store) throws IOException {
+        final List<Path> snapshots = snapshots(directory);
+        Collections.reverse(snapshots);
+
+        for (final Path snapshot : snapshots) {
+            final List<Todo> todos = readSnapshot(snapshot);
+            if (todos != null) {
+                todos.forEach(store::add);
+                return snapshotSequence(snapshot);
+            }
+            logger.warn("Ignoring corrupt snapshot {}", snapshot);
+        }
+        return 0;
+    }
+
+    private static List<Todo> readSnapshot(final Path snapshot) throws IOException {
+        try (InputStream file = Files.newInputStream(snapshot)) {
+            final CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file, 64 * 1024),
+                    new CRC32());
+            final DataInputStream input = new DataInputStream(checked);
+            if (input.readInt() != SNAPSHOT_MAGIC || input.readLong() != snapshotSequence(snapshot)) {
+                return null;
+            }
+
+            final long count = input.readLong();
+            final List<Todo> todos = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE - 8));
+            for (long i = 0; i < count; i++) {
+                todos.add(TodoRecords.read(input));
+            }
+
+            final int expected = (int) checked.getChecksum().getValue();
+            return input.readInt() == expected ? todos : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static List<Path> snapshots(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                final String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static Path snapshotPath(final Path directory, final long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+    }
+
+    private static long snapshotSequence(final Path snapshot) {
+        final String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+}
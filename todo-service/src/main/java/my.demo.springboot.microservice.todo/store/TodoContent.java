@@ -0,0 +1,78 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.util.Objects;
+import java.util.UUID;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * The fields of a todo that {@code Todo.equals} compares, i.e. everything but the id: the key of the per-account
+ * content indexes that find duplicates. Unlike a {@code Todo} it can't be changed once it is a key.
+ */
+final class TodoContent {
+
+    private final UUID accountId;
+    private final String email;
+    private final String description;
+    private final boolean completed;
+    private final long hash;
+
+    private TodoContent(final UUID accountId, final String email, final String description, final boolean completed) {
+        this.accountId = accountId;
+        this.email = email;
+        this.description = description;
+        this.completed = completed;
+        this.hash = hash(accountId, email, description, completed);
+    }
+
+    static TodoContent of(final Todo todo) {
+        return new TodoContent(todo.getAccountId(), todo.getEmail(), todo.getDescription(), todo.isCompleted());
+    }
+
+    /**
+     * A 64 bit hash of the content, for indexes that can't afford to compare the content on every probe.
+     */
+    long hash64() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TodoContent)) {
+            return false;
+        }
+        final TodoContent content = (TodoContent) other;
+        return hash == content.hash && completed == content.completed && accountId.equals(content.accountId)
+                && Objects.equals(email, content.email) && Objects.equals(description, content.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) hash;
+    }
+
+    private static long hash(final UUID accountId, final String email, final String description,
+            final boolean completed) {
+        long hash = accountId.getMostSignificantBits() * 0x9e3779b97f4a7c15L ^ accountId.getLeastSignificantBits();
+        hash = hashChars(hash, email);
+        hash = hashChars(hash, description);
+        hash = (hash ^ (completed ? 1 : 0)) * 0x100000001b3L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        return hash ^ (hash >>> 33);
+    }
+
+    // FNV-1a over the chars, with a marker that tells null from the empty string
+    private static long hashChars(long hash, final String value) {
+        if (value == null) {
+            return (hash ^ 0xff) * 0x100000001b3L;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return (hash ^ 0xfe) * 0x100000001b3L;
+    }
+}
@@ -0,0 +1,430 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Append-only log of store mutations, split into segments named after the sequence number of their first record.
+ * <p>
+ * Appends are queued and acknowledged through a future; a single writer thread writes everything queued since its
+ * last flush and fsyncs it once, so concurrent writers share the cost of a {@code force}. Every record is framed as
+ * {@code length, crc32, sequence, type, todo}, and replay stops at the first torn frame of the newest segment.
+ */
+public class TodoJournal implements Closeable {
+
+    public static final byte ADD = 1;
+    public static final byte UPDATE = 2;
+    public static final byte DELETE = 3;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int WRITE_BUFFER_BYTES = 256 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoJournal.class);
+
+    private final Path directory;
+
+    private final Object lock = new Object();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+
+    private final Thread writer;
+
+    // guarded by lock
+    private List<PendingRecord> pending = new ArrayList<>();
+    private long nextSequence;
+    private FileChannel segment;
+    private IOException failure;
+    private boolean closed;
+
+    private TodoJournal(final Path directory, final long nextSequence) throws IOException {
+        this.directory = directory;
+        this.nextSequence = nextSequence;
+        this.segment = openSegment(directory, nextSequence);
+
+        writer = new Thread(this::writeLoop, "todo-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the journal for appending, starting a new segment at the given sequence number.
+     */
+    public static TodoJournal open(final Path directory, final long nextSequence) throws IOException {
+        Files.createDirectories(directory);
+        return new TodoJournal(directory, nextSequence);
+    }
+
+    /**
+     * Replays every record with a sequence number of at least {@code fromSequence} in order and returns the
+     * sequence number the next record has to get. A torn or corrupt tail of the newest segment is truncated.
+     */
+    public static long replay(final Path directory, final long fromSequence, final RecordHandler handler)
+            throws IOException {
+        final List<Path> segments = segments(directory);
+
+        long nextSequence = fromSequence;
+        for (int i = 0; i < segments.size(); i++) {
+            final boolean newest = i == segments.size() - 1;
+            if (!newest && firstSequence(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            nextSequence = Math.max(nextSequence, replaySegment(segments.get(i), fromSequence, newest, handler));
+        }
+        return nextSequence;
+    }
+
+    public CompletableFuture<Long> append(final byte type, final Todo todo) {
+        return appendAll(type, Collections.singletonList(todo)).get(0);
+    }
+
+    /**
+     * Appends a record for each todo, in order. All of them are encoded before any is queued, so a todo that can't be
+     * encoded fails the whole list and none of it reaches the disk.
+     */
+    public List<CompletableFuture<Long>> appendAll(final byte type, final List<Todo> todos) {
+        final List<PendingRecord> records = new ArrayList<>(todos.size());
+        try {
+            for (final Todo todo : todos) {
+                records.add(new PendingRecord(encode(type, todo)));
+            }
+        } catch (IOException e) {
+            return failed(e, todos.size());
+        }
+
+        synchronized (lock) {
+            if (closed) {
+                return failed(new IOException("Journal is closed"), todos.size());
+            }
+            if (failure != null) {
+                return failed(failure, todos.size());
+            }
+            for (final PendingRecord record : records) {
+                record.sequence = nextSequence++;
+                ByteBuffer.wrap(record.frame).putLong(FRAME_HEADER_BYTES, record.sequence);
+                final CRC32 crc = new CRC32();
+                crc.update(record.frame, FRAME_HEADER_BYTES, record.frame.length - FRAME_HEADER_BYTES);
+                ByteBuffer.wrap(record.frame).putInt(4, (int) crc.getValue());
+            }
+
+            final boolean idle = pending.isEmpty();
+            pending.addAll(records);
+            if (idle && !records.isEmpty()) {
+                lock.notifyAll();
+            }
+        }
+        return records.stream().map(record -> record.future).collect(Collectors.toList());
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Every record with a sequence number lower than the returned
+     * one is written to an older segment when this returns.
+     */
+    public long roll() throws IOException {
+        flushLock.lock();
+        try {
+            final List<PendingRecord> batch;
+            final FileChannel previous;
+            final long sequence;
+            synchronized (lock) {
+                sequence = nextSequence;
+                final FileChannel next = openSegment(directory, sequence);
+                batch = pending;
+                pending = new ArrayList<>();
+                previous = segment;
+                segment = next;
+            }
+            write(batch, previous);
+            previous.close();
+            return sequence;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments that only hold records with a sequence number lower than the given one.
+     */
+    public void deleteSegmentsBefore(final long sequence) throws IOException {
+        final List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (firstSequence(segments.get(i + 1)) <= sequence) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flushLock.lock();
+        try {
+            final List<PendingRecord> batch;
+            synchronized (lock) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+            write(batch, segment);
+            segment.close();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                synchronized (lock) {
+                    while (pending.isEmpty() && !closed) {
+                        lock.wait();
+                    }
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                }
+
+                flushLock.lock();
+                try {
+                    final List<PendingRecord> batch;
+                    final FileChannel channel;
+                    synchronized (lock) {
+                        batch = pending;
+                        pending = new ArrayList<>();
+                        channel = segment;
+                    }
+                    write(batch, channel);
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // callers hold flushLock
+    private void write(final List<PendingRecord> batch, final FileChannel channel) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeBuffer.clear();
+            for (final PendingRecord record : batch) {
+                if (writeBuffer.remaining() < record.frame.length) {
+                    drain(channel);
+                }
+                if (record.frame.length > writeBuffer.capacity()) {
+                    final ByteBuffer frame = ByteBuffer.wrap(record.frame);
+                    while (frame.hasRemaining()) {
+                        channel.write(frame);
+                    }
+                } else {
+                    writeBuffer.put(record.frame);
+                }
+            }
+            drain(channel);
+            channel.force(false);
+        } catch (IOException e) {
+            logger.error("Writing {} journal records failed", batch.size(), e);
+            synchronized (lock) {
+                failure = e;
+            }
+            batch.forEach(record -> record.future.completeExceptionally(e));
+            return;
+        }
+
+        batch.forEach(record -> record.future.complete(record.sequence));
+    }
+
+    private void drain(final FileChannel channel) throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    private static byte[] encode(final byte type, final Todo todo) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0);
+        output.writeInt(0);
+        output.writeLong(0);
+        output.writeByte(type);
+        TodoRecords.write(output, todo);
+
+        final byte[] frame = bytes.toByteArray();
+        if (frame.length > MAX_RECORD_BYTES) {
+            throw new IOException(String.format("Journal record of %d bytes exceeds the limit", frame.length));
+        }
+        ByteBuffer.wrap(frame).putInt(0, frame.length - FRAME_HEADER_BYTES);
+        return frame;
+    }
+
+    private static long replaySegment(final Path segment, final long fromSequence, final boolean newest,
+            final RecordHandler handler) throws IOException {
+        final CRC32 crc = new CRC32();
+        long nextSequence = firstSequence(segment);
+        long position = 0;
+        boolean torn = false;
+
+        try (InputStream stream = Files.newInputStream(segment);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(stream, 64 * 1024))) {
+            byte[] payload = new byte[256];
+            while (true) {
+                final int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    torn = true;
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                try {
+                    final int checksum = input.readInt();
+                    input.readFully(payload, 0, length);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        torn = true;
+                        break;
+                    }
+                } catch (EOFException e) {
+                    torn = true;
+                    break;
+                }
+
+                final DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload, 0, length));
+                final long sequence = record.readLong();
+                final byte type = record.readByte();
+                final Todo todo = TodoRecords.read(record);
+                if (sequence >= fromSequence) {
+                    handler.handle(type, todo);
+                }
+
+                nextSequence = sequence + 1;
+                position += FRAME_HEADER_BYTES + length;
+            }
+        }
+
+        if (torn) {
+            if (!newest) {
+                throw new IOException(String.format("Journal segment %s is corrupt at offset %d", segment, position));
+            }
+            logger.warn("Truncating torn journal segment {} at offset {}", segment, position);
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+                channel.force(true);
+            }
+        }
+        return nextSequence;
+    }
+
+    private static FileChannel openSegment(final Path directory, final long firstSequence) throws IOException {
+        final Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        syncDirectory(directory);
+        return channel;
+    }
+
+    static void syncDirectory(final Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories can't be opened for syncing on every platform
+            logger.debug("Syncing directory {} failed", directory, e);
+        }
+    }
+
+    private static List<Path> segments(final Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                final String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSequence(final Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static List<CompletableFuture<Long>> failed(final Throwable throwable, final int count) {
+        final List<CompletableFuture<Long>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final CompletableFuture<Long> future = new CompletableFuture<>();
+            future.completeExceptionally(throwable);
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        void handle(byte type, Todo todo);
+    }
+
+    private static final class PendingRecord {
+        private final byte[] frame;
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private long sequence;
+
+        private PendingRecord(final byte[] frame) {
+            this.frame = frame;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+/**
+ * Binary encoding of a todo shared by the journal and the snapshots.
+ */
+final class TodoRecords {
+
+    private TodoRecords() {
+    }
+
+    static void write(final DataOutput output, final Todo todo) throws IOException {
+        writeUuid(output, todo.getTodoId());
+        writeUuid(output, todo.getAccountId());
+        writeString(output, todo.getEmail());
+        writeString(output, todo.getDescription());
+        output.writeBoolean(todo.isCompleted());
+    }
+
+    static Todo read(final DataInput input) throws IOException {
+        final UUID todoId = readUuid(input);
+        final UUID accountId = readUuid(input);
+        final String email = readString(input);
+        final String description = readString(input);
+        final boolean completed = input.readBoolean();
+        return new Todo(todoId, accountId, email, description, completed);
+    }
+
+    // an int length rather than writeUTF, which stops at 65535 bytes
+    private static void writeString(final DataOutput output, final String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInput input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        final int length = input.readInt();
+        if (length < 0) {
+            throw new IOException(String.format("Corrupt string length %d", length));
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeUuid(final DataOutput output, final UUID uuid) throws IOException {
+        output.writeLong(uuid.getMostSignificantBits());
+        output.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(final DataInput input) throws IOException {
+        return new UUID(input.readLong(), input.readLong());
+    }
+}
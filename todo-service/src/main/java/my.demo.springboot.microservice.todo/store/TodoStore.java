@@ -0,0 +1,96 @@
+package my.demo.springboot.microservice.todo.store;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+
+public interface TodoStore {
+    public Todo findById(UUID todoId);
+
+    public List<Todo> findAll();
+
+    /**
+     * Returns up to {@code limit} todos following the one with the given id in the store's iteration order. The
+     * in-memory stores iterate in id order, so any id, even one that was never stored, marks a position; the
+     * {@link MappedTodoStore} iterates in insertion order and returns an empty page for an id it never stored. Removed
+     * todos keep their position in both.
+     */
+    public List<Todo> findAll(UUID after, int limit);
+
+    public List<Todo> findAllByAccount(UUID accountId);
+
+    /**
+     * Adds a todo with an id that is not stored yet. The {@link MappedTodoStore} rejects a stored id with an
+     * {@code IllegalStateException}, the in-memory stores don't check it.
+     */
+    public Todo add(final Todo todo);
+
+    /**
+     * Returns a stored todo of the same account that equals the given one in everything but the id, or {@code null}.
+     */
+    public Todo findEqual(final Todo todo);
+
+    /**
+     * Adds the todo unless {@link #findEqual(Todo)} finds one; checking and adding is one atomic step, so of two equal
+     * todos added concurrently only one gets in.
+     */
+    public boolean addIfAbsent(final Todo todo);
+
+    /**
+     * Adds the todos in one pass; a durable store waits for the disk once for the whole list.
+     */
+    public default List<Todo> addAll(final List<Todo> todos) {
+        todos.forEach(this::add);
+        return todos;
+    }
+
+    /**
+     * Adds each todo unless an equal one is stored or comes earlier in the list, checking and adding it as one atomic
+     * step like {@link #addIfAbsent(Todo)}, and returns the todos added. A durable store waits for the disk once for
+     * the whole list.
+     */
+    public default List<Todo> addAllIfAbsent(final List<Todo> todos) {
+        return todos.stream().filter(this::addIfAbsent).collect(Collectors.toList());
+    }
+
+    /**
+     * Replaces the stored todo with the same id if it is still at {@code expectedVersion} and no other todo of its
+     * account equals the replacement; the account of a todo never changes. Checking both and replacing is one atomic
+     * step, like {@link #addIfAbsent(Todo)}.
+     */
+    public Replacement replace(final Todo todo, final long expectedVersion);
+
+    /**
+     * Removes the todo if it is still at {@code expectedVersion}. Returns {@code false} if the todo was changed or
+     * removed in the meantime.
+     */
+    public boolean remove(final UUID todoId, final long expectedVersion);
+
+    public int size();
+
+    /**
+     * Counts the mutations of the store; it only grows while the store is open.
+     */
+    public long version();
+
+    /**
+     * Counts the mutations of the todos of the given account; it only grows while the store is open.
+     */
+    public long accountVersion(UUID accountId);
+
+    /**
+     * Counts the mutations of a todo, starting at 1 when it is added; 0 if there is no such todo. Read before the
+     * todo itself, it never stands for a newer state than the one read.
+     */
+    public long todoVersion(UUID todoId);
+
+    public enum Replacement {
+        REPLACED,
+        /** the todo was changed or removed in the meantime */
+        CHANGED,
+        /** another todo of the account equals the replacement */
+        DUPLICATE
+    }
+}
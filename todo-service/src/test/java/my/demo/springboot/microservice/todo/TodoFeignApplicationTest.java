@@ -1,10 +1,12 @@
 package my.demo.springboot.microservice.todo;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.serverError;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.hamcrest.CoreMatchers.isA;
 import static org.hamcrest.Matchers.is;
@@ -75,6 +77,26 @@ public class TodoFeignApplicationTest {
         assertThat(account.getBody().getEmail(), is("John.Doe@foo.bar"));
     }
 
+    @Test
+    public void testFindByIdReusesBodyNotModified() {
+        final String path = "/accounts/" + testConfig.getRevalidatedAccountId();
+        stubFor(get(urlEqualTo(path))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", "application/hal+json")
+                        .withHeader("ETag", "\"42\"")
+                        .withBodyFile("account.json")));
+        accountProxy.findById(testConfig.getRevalidatedAccountId());
+
+        stubFor(get(urlEqualTo(path)).withHeader("If-None-Match", equalTo("\"42\""))
+                .willReturn(aResponse().withStatus(HttpStatus.NOT_MODIFIED.value())));
+        ResponseEntity<Account> account = accountProxy.findById(testConfig.getRevalidatedAccountId());
+
+        verify(get(urlEqualTo(path)).withHeader("If-None-Match", equalTo("\"42\"")));
+        assertThat(account.getStatusCode(), is(HttpStatus.OK));
+        assertThat(account.getBody().getFirstName(), is("John"));
+    }
+
     @Test
     public void testFindByIdFails() {
         thrown.expect(HystrixRuntimeException.class);
@@ -92,6 +114,7 @@ public class TodoFeignApplicationTest {
     public static class TodoServiceTestConfiguration {
         private final UUID accountId = UUID.fromString("4e696b86-257f-4887-8bae-027d8e883638");
         private final UUID nonExistingAccountId = UUID.fromString("4e696b86-257f-4887-8bae-027d8e883637");
+        private final UUID revalidatedAccountId = UUID.fromString("4e696b86-257f-4887-8bae-027d8e883639");
 
         @Bean
         public ServerList<Server> ribbonServerList() {
@@ -105,6 +128,10 @@ public class TodoFeignApplicationTest {
         public UUID getNonExistingAccountId() {
             return nonExistingAccountId;
         }
+
+        public UUID getRevalidatedAccountId() {
+            return revalidatedAccountId;
+        }
     }
 
 }
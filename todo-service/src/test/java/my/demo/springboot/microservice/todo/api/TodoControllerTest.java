@@ -4,8 +4,12 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -28,7 +32,10 @@ import org.springframework.test.web.servlet.ResultActions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.domain.TodoPatch;
+import my.demo.springboot.microservice.todo.domain.TodoResult;
 import my.demo.springboot.microservice.todo.domain.TodoServiceImpl;
+import my.demo.springboot.microservice.todo.exception.PreconditionFailedException;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(TodoController.class)
@@ -79,6 +86,106 @@ public class TodoControllerTest {
                         + "/todos"))));
     }
 
+    @Test
+    public void testGetTodosPageLinksToNextPage() throws Exception {
+        given(todoService.findAll(null, 2)).willReturn(todos);
+
+        final ResultActions result = mockMvc.perform(get("/todos?limit=2"));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("_embedded.todos", hasSize(2)))
+                .andExpect(jsonPath("_links.next.href", containsString("after=" + todos.get(1).getTodoId())));
+    }
+
+    @Test
+    public void testGetTodoByIdLinksToItself() throws Exception {
+        final Todo todo = todos.get(0);
+        given(todoService.findById(todo.getTodoId())).willReturn(todo);
+
+        final ResultActions result = mockMvc.perform(get("/todos/" + todo.getTodoId()));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("todoId", is(todo.getTodoId().toString())))
+                .andExpect(jsonPath("_links.self.href", containsString("/todos/" + todo.getTodoId())))
+                .andExpect(jsonPath("_links.todos.href", containsString("/todos")));
+    }
+
+    @Test
+    public void testGetAccountTodosNotModified() throws Exception {
+        given(todoService.accountTodosETag(accountOneId)).willReturn("\"1-2\"");
+
+        final ResultActions result = mockMvc.perform(get("/accounts/" + accountOneId + "/todos")
+                .header("If-None-Match", "\"1-2\""));
+
+        result.andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-2\""));
+        verify(todoService, never()).findAllByAccount(accountOneId);
+    }
+
+    @Test
+    public void testGetUnknownAccountTodosIsNotTagged() throws Exception {
+        final UUID unknownId = UUID.randomUUID();
+        given(todoService.accountTodosETag(unknownId)).willReturn(null);
+        given(todoService.findAllByAccount(unknownId))
+                .willThrow(new IllegalArgumentException("Account with id " + unknownId + " not found"));
+
+        final ResultActions result = mockMvc.perform(get("/accounts/" + unknownId + "/todos")
+                .header("If-None-Match", "\"1-0\""));
+
+        result.andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("message", containsString(unknownId.toString())));
+    }
+
+    @Test
+    public void testPatchTodoAnswersWithNewETag() throws Exception {
+        final Todo todo = todos.get(0);
+        final Todo completed = new Todo(todo.getTodoId(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", true);
+        given(todoService.patchTodo(todo.getTodoId(), TodoPatch.completed(true), "\"1-2\"")).willReturn(completed);
+        given(todoService.todoETag(todo.getTodoId(), completed)).willReturn("\"1-3\"");
+
+        final ResultActions result = mockMvc.perform(patch("/todos/" + todo.getTodoId())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}")
+                .header("If-Match", "\"1-2\""));
+
+        result.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("completed", is(true)));
+    }
+
+    @Test
+    public void testPatchTodoWithOutdatedETagFails() throws Exception {
+        final Todo todo = todos.get(0);
+        given(todoService.patchTodo(todo.getTodoId(), TodoPatch.completed(true), "\"1-2\""))
+                .willThrow(new PreconditionFailedException("Todo with id " + todo.getTodoId() + " has been changed"));
+
+        final ResultActions result = mockMvc.perform(patch("/todos/" + todo.getTodoId())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"completed\":true}")
+                .header("If-Match", "\"1-2\""));
+
+        result.andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("message", containsString("has been changed")));
+    }
+
+    @Test
+    public void testPostTodoBatchReportsEachTodo() throws Exception {
+        final List<TodoResult> results = new ArrayList<>();
+        results.add(TodoResult.success(todos.get(0)));
+        results.add(TodoResult.failure(todos.get(1), "Account with id " + accountTwoId + " not found"));
+
+        given(todoService.addTodos(todos)).willReturn(results);
+
+        final ResultActions result = mockMvc.perform(post("/todos:batch").contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(todos)));
+
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].created", is(true)))
+                .andExpect(jsonPath("$[0].todo.todoId", is(todos.get(0).getTodoId().toString())))
+                .andExpect(jsonPath("$[1].created", is(false)))
+                .andExpect(jsonPath("$[1].error", containsString(accountTwoId.toString())));
+    }
+
     @Test
     public void testPostTodoRequestForExistingAccount() throws Exception {
 
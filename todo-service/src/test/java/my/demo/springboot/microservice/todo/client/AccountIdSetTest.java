@@ -0,0 +1,62 @@
+package my.demo.springboot.microservice.todo.client;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class AccountIdSetTest {
+
+    @Test
+    public void testContainsExactlyTheGivenIds() {
+        final List<UUID> accountIds = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            accountIds.add(UUID.randomUUID());
+        }
+
+        final AccountIdSet set = AccountIdSet.of(accountIds);
+
+        assertThat(set.size(), is(accountIds.size()));
+        accountIds.forEach(accountId -> assertThat(set.contains(accountId), is(true)));
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(set.contains(UUID.randomUUID()), is(false));
+        }
+    }
+
+    @Test
+    public void testHandlesDuplicatesAndTheNilUuid() {
+        final UUID nil = new UUID(0, 0);
+        final UUID accountId = UUID.randomUUID();
+
+        final AccountIdSet set = AccountIdSet.of(Arrays.asList(accountId, nil, accountId, nil));
+
+        assertThat(set.size(), is(2));
+        assertThat(set.contains(nil), is(true));
+        assertThat(set.contains(accountId), is(true));
+        assertThat(AccountIdSet.of(Arrays.asList(accountId)).contains(nil), is(false));
+    }
+
+    @Test
+    public void testAppliesChanges() {
+        final UUID kept = UUID.randomUUID();
+        final UUID deleted = UUID.randomUUID();
+        final UUID created = UUID.randomUUID();
+
+        final Map<UUID, Boolean> changes = new HashMap<>();
+        changes.put(deleted, false);
+        changes.put(created, true);
+        final AccountIdSet set = AccountIdSet.of(Arrays.asList(kept, deleted)).with(changes);
+
+        assertThat(set.size(), is(2));
+        assertThat(set.contains(kept), is(true));
+        assertThat(set.contains(deleted), is(false));
+        assertThat(set.contains(created), is(true));
+    }
+}
@@ -0,0 +1,104 @@
+package my.demo.springboot.microservice.todo.client;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+
+public class AccountRequestCollapserTest {
+
+    private final UUID accountOneId = UUID.randomUUID();
+    private final UUID accountTwoId = UUID.randomUUID();
+
+    private AccountProxy accountProxy;
+
+    private AccountRequestCollapser collapser;
+
+    @Before
+    public void setup() {
+        accountProxy = mock(AccountProxy.class);
+        collapser = new AccountRequestCollapser(accountProxy, 50, 100, 1);
+
+        final AccountResources.AccountResource resource = new AccountResources.AccountResource();
+        resource.setAccount(new Account(accountOneId, "John", "Doe", "John.Doe@foo.bar"));
+
+        final AccountResources.Embedded embedded = new AccountResources.Embedded();
+        embedded.setAccountResourceList(Collections.singletonList(resource));
+
+        final AccountResources accountResources = new AccountResources();
+        accountResources.setEmbedded(embedded);
+
+        given(accountProxy.findAllById(anySet())).willReturn(ResponseEntity.ok(accountResources));
+    }
+
+    @After
+    public void tearDown() {
+        collapser.shutdown();
+    }
+
+    @Test
+    public void testLookupsWithinWindowAreCollapsed() throws Exception {
+        final CompletableFuture<Boolean> first = collapser.isAccountValid(accountOneId);
+        final CompletableFuture<Boolean> second = collapser.isAccountValid(accountTwoId);
+        final CompletableFuture<Boolean> third = collapser.isAccountValid(accountOneId);
+
+        assertThat(first.get(5, TimeUnit.SECONDS), is(true));
+        assertThat(second.get(5, TimeUnit.SECONDS), is(false));
+        assertThat(third.get(5, TimeUnit.SECONDS), is(true));
+
+        verify(accountProxy, times(1)).findAllById(anySet());
+    }
+
+    @Test
+    public void testFullBatchDoesNotShortenTheNextWindow() throws Exception {
+        // the windows end when the test says so, and batches are looked up on the calling thread
+        final List<Runnable> flushes = new ArrayList<>();
+        final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        given(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).willAnswer(invocation -> {
+            flushes.add(invocation.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+        final ExecutorService dispatcher = mock(ExecutorService.class);
+        willAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).given(dispatcher).execute(any(Runnable.class));
+
+        collapser.shutdown();
+        collapser = new AccountRequestCollapser(accountProxy, 400, 2, scheduler, dispatcher);
+
+        collapser.isAccountValid(accountOneId);
+        assertThat(collapser.isAccountValid(accountTwoId).getNow(null), is(false));
+
+        final CompletableFuture<Boolean> next = collapser.isAccountValid(accountOneId);
+        // the window of the full batch ends within the window of this one
+        flushes.get(0).run();
+        assertThat(next.isDone(), is(false));
+        verify(accountProxy, times(1)).findAllById(anySet());
+
+        flushes.get(1).run();
+        assertThat(next.getNow(null), is(true));
+        verify(accountProxy, times(2)).findAllById(anySet());
+    }
+}
@@ -0,0 +1,144 @@
+package my.demo.springboot.microservice.todo.client;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HedgingClientTest {
+
+    private final Request request = Request.create("GET", "http://account-service/accounts/1",
+            Collections.emptyMap(), null, null);
+
+    private final Request.Options options = new Request.Options(1000, 5000);
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccountLatencyPolicy policy;
+
+    private HedgingClient client;
+
+    @Before
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new AccountLatencyPolicy();
+        ReflectionTestUtils.setField(policy, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(policy, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(policy, "hedgingPercentile", 0.95);
+        ReflectionTestUtils.setField(policy, "maxHedgeRatio", 1.0);
+        ReflectionTestUtils.setField(policy, "timeoutPercentile", 0.99);
+        ReflectionTestUtils.setField(policy, "timeoutMultiplier", 3.0);
+        ReflectionTestUtils.setField(policy, "minTimeoutMillis", 100L);
+        ReflectionTestUtils.setField(policy, "maxTimeoutMillis", 1000L);
+
+        // the first attempt is slow, any other one fast
+        client = new HedgingClient((request, options) -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(500);
+                return response("slow");
+            }
+            return response("fast");
+        }, policy, 4);
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Test
+    public void testSlowCallIsHedged() throws IOException {
+        // long enough a delay for the first attempt to start before the hedge
+        recordLatencies(50);
+
+        assertThat(Util.toString(client.execute(request, options).body().asReader()), is("fast"));
+        assertThat(attempts.get(), is(2));
+        assertThat(hedges("won"), is(1.0));
+    }
+
+    @Test
+    public void testHedgesAreLimitedByTheBudget() throws IOException {
+        ReflectionTestUtils.setField(policy, "maxHedgeRatio", 0.5);
+        recordLatencies(1);
+
+        assertThat(Util.toString(client.execute(request, options).body().asReader()), is("slow"));
+        assertThat(attempts.get(), is(1));
+        assertThat(hedges("denied"), is(1.0));
+    }
+
+    @Test
+    public void testNoHedgeWhenThePoolIsBusy() throws IOException {
+        client.shutdown();
+        // the first attempt takes the only thread
+        client = new HedgingClient((request, options) -> {
+            attempts.incrementAndGet();
+            sleep(500);
+            return response("slow");
+        }, policy, 1);
+        recordLatencies(1);
+
+        assertThat(Util.toString(client.execute(request, options).body().asReader()), is("slow"));
+        assertThat(attempts.get(), is(1));
+    }
+
+    @Test
+    public void testRoutesLeaveOutTheIds() {
+        assertThat(HedgingClient.route(Request.create("GET",
+                "http://account-service/accounts/4e696b86-257f-4887-8bae-027d8e883638", Collections.emptyMap(), null,
+                null)), is("GET /accounts/{id}"));
+        assertThat(HedgingClient.route(Request.create("POST", "http://account-service/accounts:batchGet",
+                Collections.emptyMap(), null, null)), is("POST /accounts:batchGet"));
+    }
+
+    @Test
+    public void testTimeoutFollowsTheLatencies() {
+        ReflectionTestUtils.setField(policy, "adaptiveTimeoutEnabled", true);
+        recordLatencies(50);
+
+        // three times the 99th percentile, which is rounded up by at most 10%
+        assertThat(policy.options(HedgingClient.route(request), options).readTimeoutMillis(),
+                allOf(greaterThanOrEqualTo(150), lessThanOrEqualTo(165)));
+    }
+
+    private void recordLatencies(final long millis) {
+        for (int i = 0; i < AccountLatencyPolicy.MIN_SAMPLES; i++) {
+            policy.record(HedgingClient.route(request), TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    private double hedges(final String result) {
+        return meterRegistry.find(AccountLatencyPolicy.HEDGES).tags("result", result).counter().count();
+    }
+
+    private static Response response(final String body) {
+        return Response.builder().status(200).reason("OK").headers(Collections.emptyMap())
+                .body(body, StandardCharsets.UTF_8).build();
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
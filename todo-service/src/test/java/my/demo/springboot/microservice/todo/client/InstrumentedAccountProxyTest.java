@@ -0,0 +1,59 @@
+package my.demo.springboot.microservice.todo.client;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class InstrumentedAccountProxyTest {
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private AccountProxy delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InstrumentedAccountProxy accountProxy;
+
+    @Before
+    public void setup() {
+        delegate = mock(AccountProxy.class);
+        meterRegistry = new SimpleMeterRegistry();
+        accountProxy = new InstrumentedAccountProxy(delegate, meterRegistry);
+    }
+
+    @Test
+    public void testCallsAreTimedByOutcome() {
+        given(delegate.findById(accountId))
+                .willReturn(ResponseEntity.ok(new Account(accountId, null, null, null)))
+                .willReturn(ResponseEntity.notFound().header(AccountFallbackFactory.OUTCOME_HEADER, "circuit-open").build())
+                .willThrow(new IllegalArgumentException());
+
+        accountProxy.findById(accountId);
+        accountProxy.findById(accountId);
+        try {
+            accountProxy.findById(accountId);
+            fail();
+        } catch (final IllegalArgumentException e) {
+            // timed as an error
+        }
+
+        assertThat(count("success"), is(1L));
+        assertThat(count("circuit-open"), is(1L));
+        assertThat(count("error"), is(1L));
+    }
+
+    private long count(final String outcome) {
+        return meterRegistry.find(InstrumentedAccountProxy.TIMER).tags("method", "findById", "outcome", outcome)
+                .timer().count();
+    }
+}
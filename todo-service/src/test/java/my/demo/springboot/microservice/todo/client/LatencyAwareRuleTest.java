@@ -0,0 +1,68 @@
+package my.demo.springboot.microservice.todo.client;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.Server;
+
+public class LatencyAwareRuleTest {
+
+    private final Server fast = new Server("localhost", 8081);
+
+    private final Server slow = new Server("localhost", 8082);
+
+    private InstanceLoads instanceLoads;
+
+    private LatencyAwareRule rule;
+
+    @Before
+    public void setup() {
+        instanceLoads = new InstanceLoads(10000);
+        rule = new LatencyAwareRule(instanceLoads);
+
+        final BaseLoadBalancer loadBalancer = new BaseLoadBalancer();
+        loadBalancer.addServers(Arrays.asList(fast, slow));
+        loadBalancer.setRule(rule);
+    }
+
+    @Test
+    public void testPrefersTheFasterInstance() {
+        record(fast, 5, false);
+        record(slow, 50, false);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(rule.choose(null), is(fast));
+        }
+    }
+
+    @Test
+    public void testAvoidsTheInstanceWithMoreOutstandingRequests() {
+        record(fast, 5, false);
+        record(slow, 5, false);
+        instanceLoads.get(fast.getHostPort()).start();
+        instanceLoads.get(fast.getHostPort()).start();
+
+        assertThat(rule.choose(null), is(slow));
+    }
+
+    @Test
+    public void testCountsFailuresAsSlow() {
+        record(fast, 1, true);
+        record(slow, 50, false);
+
+        assertThat(rule.choose(null), is(slow));
+    }
+
+    private void record(final Server server, final long millis, final boolean failed) {
+        final InstanceLoads.InstanceLoad load = instanceLoads.get(server.getHostPort());
+        load.start();
+        load.end(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis), failed);
+    }
+}
@@ -0,0 +1,94 @@
+package my.demo.springboot.microservice.todo.client;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+
+public class ReactiveAccountClientTest {
+
+    private final UUID accountId = UUID.randomUUID();
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    // answers the n-th attempt, counting from 1
+    private IntFunction<Mono<ClientResponse>> answer;
+
+    private AccountValidityCache accountValidityCache;
+
+    private AccountFallbackFactory accountFallbackFactory;
+
+    private ReactiveAccountClient accountClient;
+
+    @Before
+    public void setup() {
+        accountValidityCache = mock(AccountValidityCache.class);
+        accountFallbackFactory = mock(AccountFallbackFactory.class);
+
+        // each retry subscribes again, so the attempt is only counted then
+        accountClient = new ReactiveAccountClient(WebClient.builder()
+                .exchangeFunction(request -> Mono.defer(() -> answer.apply(attempts.incrementAndGet()))));
+        ReflectionTestUtils.setField(accountClient, "accountValidityCache", accountValidityCache);
+        ReflectionTestUtils.setField(accountClient, "accountFallbackFactory", accountFallbackFactory);
+        ReflectionTestUtils.setField(accountClient, "accountReplica", mock(AccountReplica.class));
+        ReflectionTestUtils.setField(accountClient, "timeoutMillis", 100L);
+        ReflectionTestUtils.setField(accountClient, "retries", 2);
+    }
+
+    @Test
+    public void testTimedOutAttemptIsRetried() {
+        answer = attempt -> attempt == 1 ? Mono.never() : respond(HttpStatus.OK);
+
+        assertThat(accountClient.isAccountValid(accountId).block(), is(true));
+
+        assertThat(attempts.get(), is(2));
+        verify(accountValidityCache).put(accountId, true);
+        verify(accountFallbackFactory, never()).create(any());
+    }
+
+    @Test
+    public void testUnknownAccountIsNotValid() {
+        answer = attempt -> respond(HttpStatus.NOT_FOUND);
+
+        assertThat(accountClient.isAccountValid(accountId).block(), is(false));
+
+        assertThat(attempts.get(), is(1));
+        verify(accountValidityCache).put(accountId, false);
+        verify(accountFallbackFactory, never()).create(any());
+    }
+
+    @Test
+    public void testFallbackAnswersOnceRetriesAreUsedUp() {
+        answer = attempt -> respond(HttpStatus.SERVICE_UNAVAILABLE);
+        final AccountProxy fallback = mock(AccountProxy.class);
+        given(fallback.findById(accountId)).willReturn(ResponseEntity.ok(new Account(accountId, null, null, null)));
+        given(accountFallbackFactory.create(any())).willReturn(fallback);
+
+        assertThat(accountClient.isAccountValid(accountId).block(), is(true));
+
+        assertThat(attempts.get(), is(3));
+        verify(accountValidityCache, never()).put(any(), anyBoolean());
+    }
+
+    private static Mono<ClientResponse> respond(final HttpStatus status) {
+        return Mono.just(ClientResponse.create(status).build());
+    }
+}
@@ -0,0 +1,49 @@
+package my.demo.springboot.microservice.todo.domain;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import my.demo.springboot.microservice.todo.TodoConfiguration;
+import my.demo.springboot.microservice.todo.client.ReactiveAccountClient;
+import my.demo.springboot.microservice.todo.store.InMemoryTodoStore;
+import reactor.core.publisher.Mono;
+
+public class ReactiveTodoServiceImplTest {
+
+    private final ReactiveAccountClient accountClient = mock(ReactiveAccountClient.class);
+
+    private final ReactiveTodoServiceImpl todoService = new ReactiveTodoServiceImpl();
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @Before
+    public void setup() {
+        ReflectionTestUtils.setField(todoService, "accountClient", accountClient);
+        ReflectionTestUtils.setField(todoService, "todoConfiguration", new TodoConfiguration(new InMemoryTodoStore()));
+    }
+
+    @Test
+    public void testAddTodoForValidAccount() {
+        given(accountClient.isAccountValid(accountId)).willReturn(Mono.just(true));
+
+        final Todo todo = todoService.addTodo(new Todo(null, accountId, "John.Doe@foo.bar", "Clean Dishes", false)).block();
+
+        assertThat(todoService.findById(todo.getTodoId()).block(), is(todo));
+        assertThat(todoService.findAllByAccount(accountId).count().block(), is(1L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTodoForUnknownAccount() {
+        given(accountClient.isAccountValid(accountId)).willReturn(Mono.just(false));
+
+        todoService.addTodo(new Todo(null, accountId, "John.Doe@foo.bar", "Clean Dishes", false)).block();
+    }
+}
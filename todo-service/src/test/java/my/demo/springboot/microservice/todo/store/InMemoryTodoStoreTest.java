@@ -0,0 +1,213 @@
+package my.demo.springboot.microservice.todo.store;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.store.TodoStore.Replacement;
+
+public class InMemoryTodoStoreTest {
+
+    private static final int WRITERS = 8;
+    private static final int READERS = 4;
+    private static final int TODOS_PER_WRITER = 5000;
+
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    private InMemoryTodoStore todoStore;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        todoStore = new InMemoryTodoStore();
+        executor = Executors.newFixedThreadPool(WRITERS + READERS);
+
+        for (int i = 0; i < 4; i++) {
+            accountIds.add(UUID.randomUUID());
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFindById() {
+        final Todo todo = new Todo(UUID.randomUUID(), accountIds.get(0), "John.Doe@foo.bar", "Clean Dishes", false);
+        todoStore.add(todo);
+
+        assertThat(todoStore.findById(todo.getTodoId()), is(todo));
+        assertThat(todoStore.findAllByAccount(accountIds.get(0)).size(), is(1));
+        assertThat(todoStore.findAllByAccount(accountIds.get(1)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testConcurrentWritesAreNotLost() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+
+        final List<Future<List<Todo>>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            final UUID accountId = accountIds.get(w % accountIds.size());
+            writers.add(executor.submit(() -> {
+                final List<Todo> written = new ArrayList<>(TODOS_PER_WRITER);
+                start.await();
+                for (int i = 0; i < TODOS_PER_WRITER; i++) {
+                    written.add(todoStore.add(new Todo(UUID.randomUUID(), accountId, "John.Doe@foo.bar", "Todo " + i, false)));
+                }
+                return written;
+            }));
+        }
+
+        final List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            final UUID accountId = accountIds.get(r % accountIds.size());
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    todoStore.findAll().forEach(todo -> assertNotNull(todo));
+                    todoStore.findAllByAccount(accountId).forEach(todo -> assertNotNull(todo));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        final List<Todo> written = new ArrayList<>();
+        for (final Future<List<Todo>> writer : writers) {
+            written.addAll(writer.get(30, TimeUnit.SECONDS));
+        }
+        writing.set(false);
+        for (final Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(todoStore.size(), is(WRITERS * TODOS_PER_WRITER));
+        assertThat(todoStore.findAll().size(), is(WRITERS * TODOS_PER_WRITER));
+
+        final int writersPerAccount = WRITERS / accountIds.size();
+        accountIds.forEach(accountId ->
+                assertThat(todoStore.findAllByAccount(accountId).size(), is(writersPerAccount * TODOS_PER_WRITER)));
+
+        written.forEach(todo -> assertThat(todoStore.findById(todo.getTodoId()), is(todo)));
+    }
+
+    @Test
+    public void testConcurrentReplacesAreNotLost() throws Exception {
+        final UUID todoId = UUID.randomUUID();
+        todoStore.add(new Todo(todoId, accountIds.get(0), "John.Doe@foo.bar", "0", false));
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    // every increment is a compare-and-set retried until it wins
+                    long version;
+                    Todo incremented;
+                    do {
+                        version = todoStore.todoVersion(todoId);
+                        final Todo current = todoStore.findById(todoId);
+                        incremented = new Todo(todoId, current.getAccountId(), current.getEmail(),
+                                String.valueOf(Integer.parseInt(current.getDescription()) + 1), false);
+                    } while (todoStore.replace(incremented, version) != Replacement.REPLACED);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (final Future<?> writer : writers) {
+            writer.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(todoStore.findById(todoId).getDescription(), is(String.valueOf(WRITERS * 1000)));
+        assertThat(todoStore.todoVersion(todoId), is(1L + WRITERS * 1000));
+        assertThat(todoStore.accountVersion(accountIds.get(0)), is(1L + WRITERS * 1000));
+    }
+
+    @Test
+    public void testConcurrentEqualAddsStoreOneTodo() throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Boolean>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                return todoStore.addIfAbsent(new Todo(UUID.randomUUID(), accountIds.get(0), "John.Doe@foo.bar", "Clean Dishes", false));
+            }));
+        }
+
+        start.countDown();
+        int added = 0;
+        for (final Future<Boolean> writer : writers) {
+            added += writer.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+
+        assertThat(added, is(1));
+        assertThat(todoStore.findAllByAccount(accountIds.get(0)).size(), is(1));
+    }
+
+    @Test
+    public void testConcurrentEqualReplacesKeepOneTodo() throws Exception {
+        final List<Todo> todos = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            todos.add(todoStore.add(new Todo(UUID.randomUUID(), accountIds.get(0), "John.Doe@foo.bar", String.valueOf(w), false)));
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Replacement>> writers = new ArrayList<>();
+        for (final Todo todo : todos) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                return todoStore.replace(new Todo(todo.getTodoId(), accountIds.get(0), "John.Doe@foo.bar", "Clean Dishes", false), 1);
+            }));
+        }
+
+        start.countDown();
+        final List<Replacement> replacements = new ArrayList<>();
+        for (final Future<Replacement> writer : writers) {
+            replacements.add(writer.get(30, TimeUnit.SECONDS));
+        }
+
+        assertThat(Collections.frequency(replacements, Replacement.REPLACED), is(1));
+        assertThat(Collections.frequency(replacements, Replacement.DUPLICATE), is(WRITERS - 1));
+        final Todo winner = todos.get(replacements.indexOf(Replacement.REPLACED));
+        assertThat(todoStore.findEqual(new Todo(null, accountIds.get(0), "John.Doe@foo.bar", "Clean Dishes", false)).getTodoId(),
+                is(winner.getTodoId()));
+    }
+
+    @Test
+    public void testRemoveExpectsCurrentVersion() {
+        final Todo todo = todoStore.add(new Todo(UUID.randomUUID(), accountIds.get(0), "John.Doe@foo.bar", "Clean Dishes", false));
+        todoStore.replace(new Todo(todo.getTodoId(), accountIds.get(0), "John.Doe@foo.bar", "Clean Dishes", true), 1);
+
+        assertThat(todoStore.remove(todo.getTodoId(), 1), is(false));
+        assertThat(todoStore.remove(todo.getTodoId(), 2), is(true));
+        assertThat(todoStore.findById(todo.getTodoId()), is(nullValue()));
+        assertThat(todoStore.todoVersion(todo.getTodoId()), is(0L));
+        assertThat(todoStore.findAllByAccount(accountIds.get(0)).isEmpty(), is(true));
+        assertThat(todoStore.findAll(null, 10).isEmpty(), is(true));
+        assertThat(todoStore.size(), is(0));
+    }
+}
@@ -0,0 +1,143 @@
+package my.demo.springboot.microservice.todo.store;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.store.TodoStore.Replacement;
+
+public class MappedTodoStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final UUID accountOneId = UUID.randomUUID();
+    private final UUID accountTwoId = UUID.randomUUID();
+
+    @Test
+    public void testTodosSurviveReopening() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final Todo first = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", false);
+        final Todo second = new Todo(UUID.randomUUID(), accountTwoId, "Jane.Doe@foo.bar", "Pay Bills", true);
+        final Todo third = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "", false);
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            store.add(first);
+            store.add(second);
+            store.add(third);
+        }
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            assertThat(store.size(), is(3));
+            assertThat(store.findById(second.getTodoId()), is(second));
+            assertThat(store.findById(second.getTodoId()).getTodoId(), is(second.getTodoId()));
+            assertThat(store.findById(UUID.randomUUID()), is(nullValue()));
+            assertThat(store.findAllByAccount(accountOneId), contains(first, third));
+            assertThat(store.findAll(first.getTodoId(), 10), contains(second, third));
+        }
+    }
+
+    @Test
+    public void testChangesSurviveReopening() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final Todo first = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", false);
+        final Todo second = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Watch NBA", false);
+        final Todo completed = new Todo(first.getTodoId(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", true);
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            store.add(first);
+            store.add(second);
+            assertThat(store.replace(completed, 2), is(Replacement.CHANGED));
+            assertThat(store.replace(completed, 1), is(Replacement.REPLACED));
+            assertThat(store.remove(second.getTodoId(), 1), is(true));
+        }
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            assertThat(store.size(), is(1));
+            assertThat(store.findById(first.getTodoId()).isCompleted(), is(true));
+            assertThat(store.findById(second.getTodoId()), is(nullValue()));
+            assertThat(store.findAllByAccount(accountOneId), contains(completed));
+            assertThat(store.findAll(null, 10), contains(completed));
+            assertThat(store.todoVersion(first.getTodoId()), is(2L));
+            assertThat(store.accountVersion(accountOneId), is(4L));
+            assertThat(store.version(), is(4L));
+        }
+    }
+
+    @Test
+    public void testFindsEqualTodosAfterReopening() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final Todo first = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", false);
+        final Todo completed = new Todo(first.getTodoId(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", true);
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            assertThat(store.addIfAbsent(first), is(true));
+            assertThat(store.addIfAbsent(new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", false)), is(false));
+            assertThat(store.replace(completed, 1), is(Replacement.REPLACED));
+        }
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            assertThat(store.findEqual(first), is(nullValue()));
+            assertThat(store.findEqual(completed).getTodoId(), is(first.getTodoId()));
+            assertThat(store.findEqual(new Todo(null, accountTwoId, "John.Doe@foo.bar", "Clean Dishes", true)), is(nullValue()));
+            assertThat(store.addIfAbsent(new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", false)), is(true));
+        }
+    }
+
+    @Test
+    public void testIndexesGrowWithTheRecords() throws Exception {
+        try (MappedTodoStore store = MappedTodoStore.open(folder.getRoot().toPath())) {
+            final int count = 100_000;
+            for (int i = 0; i < count; i++) {
+                store.add(new Todo(UUID.randomUUID(), i % 2 == 0 ? accountOneId : accountTwoId, "John.Doe@foo.bar",
+                        "Todo " + i, false));
+            }
+
+            assertThat(store.size(), is(count));
+            assertThat(store.findAllByAccount(accountTwoId).size(), is(count / 2));
+            assertThat(store.findAllByAccount(accountTwoId).get(0).getDescription(), is("Todo 1"));
+        }
+    }
+
+    @Test
+    public void testReplacedStringsAreCompacted() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final Todo first = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Clean Dishes", false);
+        final Todo second = new Todo(UUID.randomUUID(), accountOneId, "John.Doe@foo.bar", "Watch NBA", false);
+        final int replacements = 40_000;
+        Todo last = first;
+
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            store.add(first);
+            store.add(second);
+            for (int i = 1; i <= replacements; i++) {
+                last = new Todo(first.getTodoId(), accountOneId, "John.Doe@foo.bar", String.format("%0100d", i), false);
+                assertThat(store.replace(last, i), is(Replacement.REPLACED));
+            }
+            assertThat(store.findEqual(first), is(nullValue()));
+        }
+
+        // without compaction the 4 MB of replaced descriptions would have grown the file from its initial 2 MB
+        assertThat(Files.size(directory.resolve("strings.dat")), lessThanOrEqualTo(64L + 65536 * 32));
+        try (MappedTodoStore store = MappedTodoStore.open(directory)) {
+            assertThat(store.findAll(null, 10), contains(last, second));
+            assertThat(store.findEqual(last).getTodoId(), is(first.getTodoId()));
+            assertThat(store.todoVersion(first.getTodoId()), is(replacements + 1L));
+        }
+    }
+}
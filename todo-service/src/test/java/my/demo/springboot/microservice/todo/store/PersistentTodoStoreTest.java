@@ -0,0 +1,192 @@
+package my.demo.springboot.microservice.todo.store;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import my.demo.springboot.microservice.todo.domain.Todo;
+import my.demo.springboot.microservice.todo.store.TodoStore.Replacement;
+
+public class PersistentTodoStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @Test
+    public void testRecoversSnapshotAndJournalTail() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        final Todo first = store.add(todo("Clean Dishes"));
+        store.snapshot();
+        final Todo second = store.add(todo("Watch NBA"));
+        // the store is abandoned instead of closed, like after a crash
+
+        final PersistentTodoStore recovered = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        try {
+            assertThat(recovered.size(), is(2));
+            assertThat(recovered.findById(first.getTodoId()), is(first));
+            assertThat(recovered.findById(second.getTodoId()), is(second));
+            assertThat(recovered.findAllByAccount(accountId).size(), is(2));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void testRecoversReplacementsAndRemovals() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        final Todo first = store.add(todo("Clean Dishes"));
+        final Todo second = store.add(todo("Watch NBA"));
+        store.snapshot();
+        final Todo completed = new Todo(first.getTodoId(), accountId, "John.Doe@foo.bar", "Clean Dishes", true);
+        assertThat(store.replace(completed, 1), is(Replacement.REPLACED));
+        assertThat(store.remove(second.getTodoId(), 2), is(false));
+        assertThat(store.remove(second.getTodoId(), 1), is(true));
+
+        final PersistentTodoStore recovered = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        try {
+            assertThat(recovered.size(), is(1));
+            assertThat(recovered.findById(first.getTodoId()).isCompleted(), is(true));
+            assertThat(recovered.todoVersion(second.getTodoId()), is(0L));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void testIgnoresTornJournalTail() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        final Todo todo = store.add(todo("Pay Bills"));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            final Path segment = files.filter(path -> path.getFileName().toString().startsWith("journal-")).sorted()
+                    .reduce((older, newer) -> newer).get();
+            Files.write(segment, new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+        }
+
+        final PersistentTodoStore recovered = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        try {
+            assertThat(recovered.size(), is(1));
+            assertThat(recovered.findById(todo.getTodoId()), is(todo));
+
+            recovered.add(todo("Smoke Cigar"));
+        } finally {
+            recovered.close();
+        }
+
+        final PersistentTodoStore reopened = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        try {
+            assertThat(reopened.size(), is(2));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testRecoversTodosOverSixtyFourKilobytes() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final char[] description = new char[70 * 1024];
+        Arrays.fill(description, '\u00e4');
+        final PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        final Todo snapshotted = store.add(todo(new String(description)));
+        store.snapshot();
+        final Todo journaled = store.add(todo(new String(description) + "!"));
+
+        final PersistentTodoStore recovered = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        try {
+            assertThat(recovered.findById(snapshotted.getTodoId()), is(snapshotted));
+            assertThat(recovered.findById(journaled.getTodoId()), is(journaled));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void testBatchWithUnwritableTodoLeavesNothingBehind() throws Exception {
+        final Path directory = folder.getRoot().toPath();
+
+        final PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        final char[] description = new char[2 << 20];
+        Arrays.fill(description, 'x');
+        try {
+            store.addAll(Arrays.asList(todo("Clean Dishes"), todo(new String(description))));
+            fail();
+        } catch (final UncheckedIOException e) {
+            // the second todo exceeds the size of a journal record
+        }
+        assertThat(store.size(), is(0));
+
+        final PersistentTodoStore recovered = PersistentTodoStore.open(new InMemoryTodoStore(), directory, 3600);
+        try {
+            assertThat(recovered.size(), is(0));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentBatchesAddEachTodoOnce() throws Exception {
+        final PersistentTodoStore store = PersistentTodoStore.open(new InMemoryTodoStore(), folder.getRoot().toPath(),
+                3600);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            store.add(todo("0"));
+
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<List<Todo>>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    final List<Todo> batch = new ArrayList<>();
+                    for (int i = 0; i < 100; i++) {
+                        batch.add(todo(String.valueOf(i % 50)));
+                    }
+                    start.await();
+                    return store.addAllIfAbsent(batch);
+                }));
+            }
+
+            start.countDown();
+            int added = 0;
+            for (final Future<List<Todo>> writer : writers) {
+                added += writer.get(30, TimeUnit.SECONDS).size();
+            }
+
+            assertThat(added, is(49));
+            assertThat(store.size(), is(50));
+        } finally {
+            executor.shutdownNow();
+            store.close();
+        }
+    }
+
+    private Todo todo(final String description) {
+        return new Todo(UUID.randomUUID(), accountId, "John.Doe@foo.bar", description, false);
+    }
+}